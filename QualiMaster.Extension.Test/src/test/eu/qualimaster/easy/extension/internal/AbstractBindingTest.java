@@ -0,0 +1,119 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.eu.qualimaster.easy.extension.internal;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+
+import eu.qualimaster.coordination.RepositoryConnector;
+import eu.qualimaster.coordination.RepositoryConnector.Models;
+import eu.qualimaster.coordination.RepositoryHelper;
+import eu.qualimaster.coordination.RuntimeVariableMapping;
+import eu.qualimaster.easy.extension.debug.AbstractDebug;
+import eu.qualimaster.easy.extension.internal.BindValuesInstantiator;
+import eu.qualimaster.easy.extension.internal.ConfigurationInitializer;
+import eu.qualimaster.easy.extension.internal.CoordinationHelper;
+import eu.qualimaster.monitoring.events.FrozenSystemState;
+import net.ssehub.easy.basics.modelManagement.ModelInitializer;
+import net.ssehub.easy.basics.modelManagement.ModelManagementException;
+import net.ssehub.easy.basics.progress.ProgressObserver;
+import net.ssehub.easy.instantiation.rt.core.model.rtVil.RtVilModel;
+import net.ssehub.easy.instantiation.rt.core.model.rtVil.Script;
+import net.ssehub.easy.varModel.confModel.Configuration;
+import net.ssehub.easy.varModel.management.VarModel;
+import net.ssehub.easy.varModel.model.Project;
+
+/**
+ * Common setup for tests of the value binding on the models in <code>testdata/bindValues</code>. Creates a fresh 
+ * configuration registered for the monitoring phase per test and releases its binding information afterwards.
+ */
+public abstract class AbstractBindingTest extends AbstractDebug {
+
+    private File testDir;
+    private RepositoryHelper.IConnectorInitializer init;
+    private FrozenSystemState systemState;
+    private Models models;
+
+    /**
+     * Loads the models and creates the configuration.
+     * 
+     * @throws IOException shall not occur
+     * @throws ModelManagementException shall not occur
+     */
+    @Before
+    public void setUp() throws IOException, ModelManagementException {
+        testDir = new File(new File(System.getProperty("qm.base.dir", "."), "testdata"), "bindValues");
+        systemState = new FrozenSystemState(new File(testDir, "frozenState"));
+
+        init = RepositoryHelper.getInitializer();
+        RepositoryHelper.setInitializer(new RepositoryHelper.NullConnectorInitializer());
+        CoordinationHelper.setInTesting(true);
+        initialize();
+        
+        ModelInitializer.registerLoader(ProgressObserver.NO_OBSERVER);
+        ModelInitializer.addLocation(testDir, ProgressObserver.NO_OBSERVER);
+        Project project = RepositoryHelper.obtainModel(VarModel.INSTANCE, "QM", null);
+        Script rtVilModel = RepositoryHelper.obtainModel(RtVilModel.INSTANCE, "QM", null);
+        RuntimeVariableMapping rMapping = new RuntimeVariableMapping();
+        Configuration config = RepositoryHelper.createConfiguration(project, "TESTING", rMapping);
+        rMapping = ConfigurationInitializer.createVariableMapping(config, rMapping);
+        models = new Models(RepositoryConnector.Phase.MONITORING, config, rtVilModel, null, rMapping);
+    }
+
+    /**
+     * Releases the binding information and unloads the models.
+     */
+    @After
+    public void tearDown() {
+        if (null != models) {
+            BindValuesInstantiator.release(models.getConfiguration());
+            models = null;
+        }
+        ModelInitializer.removeLocation(testDir, ProgressObserver.NO_OBSERVER);
+        RepositoryHelper.setInitializer(init);
+    }
+    
+    /**
+     * Returns the models created for the test.
+     * 
+     * @return the models
+     */
+    protected Models getModels() {
+        return models;
+    }
+    
+    /**
+     * Returns the configuration created for the test.
+     * 
+     * @return the configuration
+     */
+    protected Configuration getConfiguration() {
+        return models.getConfiguration();
+    }
+
+    /**
+     * Returns the system state in <code>testdata/bindValues/frozenState</code>.
+     * 
+     * @return the system state
+     */
+    protected FrozenSystemState getSystemState() {
+        return systemState;
+    }
+
+}
@@ -25,6 +25,12 @@ import org.junit.runners.Suite;
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({PipelineHelperTest.class, VariableHelperTest.class, QmConstantsTest.class, OptimizerTest.class, 
+    BindingQueueTest.class, ObservableChangeFilterTest.class, ObservableSmoothingTest.class, CacheStatisticsTest.class,
+    BindingPrioritiesTest.class, BindingMetricsTest.class, IntLruCacheTest.class, BindingWarmUpTest.class, 
+    ObservableHistoryTest.class, BindingSnapshotTest.class, ReasoningMemoTest.class, BindingReleaseTest.class, 
+    BindingNegativeCacheTest.class, BindingProfilingTest.class, BindingConsistencyTest.class, 
+    BindingResultTest.class, BindingDeferralTest.class, BindingShardTest.class, 
+    BindingKeyRecyclingTest.class, BindingJournalTest.class
     /*NameMappingHelperTest.class, BindValuesTest.class*/ })
 public class AllTests {
 }
@@ -17,7 +17,6 @@ package test.eu.qualimaster.easy.extension.internal;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.Map;
 
 import org.junit.Assert;
@@ -30,6 +29,7 @@ import eu.qualimaster.coordination.RepositoryConnector.Models;
 import eu.qualimaster.easy.extension.QmConstants;
 import eu.qualimaster.easy.extension.debug.AbstractDebug;
 import eu.qualimaster.easy.extension.internal.BindValuesInstantiator;
+import eu.qualimaster.easy.extension.internal.BindingResult;
 import eu.qualimaster.easy.extension.internal.ConfigurationInitializer;
 import eu.qualimaster.easy.extension.internal.CoordinationHelper;
 import eu.qualimaster.monitoring.events.FrozenSystemState;
@@ -89,9 +89,7 @@ public class BindValuesTest extends AbstractDebug {
         new Models(RepositoryConnector.Phase.MONITORING, config, rtVilModel, null, rMapping); // registers itself
 
         Configuration cfg = new Configuration(config, NoVariableFilter.INSTANCE); // assert access as in rtVIL
-        Map<String, Object> binding = new HashMap<String, Object>();
-        binding.putAll(systemState.getMapping());
-        BindValuesInstantiator.storeValueBinding(cfg, binding);
+        BindValuesInstantiator.storeValueBinding(cfg, systemState);
         
         //Infrastructure\:AVAILABLE_MACHINES=50
         assertInteger(cfg, "availableMachines", 50);
@@ -113,11 +111,31 @@ public class BindValuesTest extends AbstractDebug {
         assertAvailableDouble(cfg, "src", "Random Source", "volume", 1000.0);
         //Actual\:SwitchPip\:processor\:SwitchProcessor1\:AVAILABLE=1.0
         assertActual(cfg, "famElt1", "SwitchProcessor1");
+        
+        assertDeltaBinding(config, systemState.getMapping());
+        BindValuesInstantiator.release(config); // testing configuration is discarded
 
         ModelInitializer.removeLocation(testDir, ProgressObserver.NO_OBSERVER);
         RepositoryHelper.setInitializer(init);
     }
 
+    /**
+     * Asserts that re-binding unchanged values in delta binding mode skips all keys.
+     * 
+     * @param config the configuration
+     * @param binding the binding that was already applied to {@code config}
+     */
+    private static void assertDeltaBinding(net.ssehub.easy.varModel.confModel.Configuration config, 
+        Map<String, ?> binding) {
+        boolean delta = BindValuesInstantiator.isDeltaBinding();
+        BindValuesInstantiator.setDeltaBinding(true);
+        BindingResult result = BindValuesInstantiator.bind(config, binding); // records the values
+        Assert.assertEquals(binding.size(), result.getKeyCount());
+        result = BindValuesInstantiator.bind(config, binding);
+        Assert.assertEquals(binding.size(), result.getSkippedCount());
+        BindValuesInstantiator.setDeltaBinding(delta);
+    }
+
     /**
      * Asserts the existence of a compound slot and returns the slot using VIL accessors.
      * 
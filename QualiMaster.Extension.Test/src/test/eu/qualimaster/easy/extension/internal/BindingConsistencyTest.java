@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.eu.qualimaster.easy.extension.internal;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import eu.qualimaster.easy.extension.internal.BindValuesInstantiator;
+import net.ssehub.easy.varModel.confModel.Configuration;
+
+/**
+ * Tests consistent reads concurrent to bindings.
+ */
+public class BindingConsistencyTest extends AbstractBindingTest {
+
+    /**
+     * Tests that a binding of another thread is not published while reading consistently.
+     * 
+     * @throws Exception shall not occur
+     */
+    @Test(timeout = 20000)
+    public void testBindingWaitsForReader() throws Exception {
+        final Configuration config = getConfiguration();
+        BindValuesInstantiator.bind(config, getSystemState()); // build the binder
+        final long version = BindValuesInstantiator.getBindingVersion(config);
+        final CountDownLatch started = new CountDownLatch(1);
+        final Thread binder = new Thread() {
+            
+            @Override
+            public void run() {
+                started.countDown();
+                BindValuesInstantiator.bind(config, getSystemState());
+            }
+            
+        };
+        long read = BindValuesInstantiator.readConsistently(config, new Callable<Long>() {
+
+            @Override
+            public Long call() throws Exception {
+                binder.start();
+                Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+                Thread.sleep(300); // give the binder the chance to publish
+                return BindValuesInstantiator.getBindingVersion(config);
+            }
+            
+        });
+        binder.join();
+        Assert.assertEquals(version, read);
+        Assert.assertEquals(version + 1, BindValuesInstantiator.getBindingVersion(config));
+    }
+
+    /**
+     * Tests that a binding from within a consistent read is rejected rather than dead-locking.
+     * 
+     * @throws Exception shall not occur
+     */
+    @Test(timeout = 20000)
+    public void testReentrantBindingRejected() throws Exception {
+        final Configuration config = getConfiguration();
+        boolean rejected = BindValuesInstantiator.readConsistently(config, new Callable<Boolean>() {
+
+            @Override
+            public Boolean call() throws Exception {
+                boolean result = false;
+                try {
+                    BindValuesInstantiator.bind(config, getSystemState());
+                } catch (IllegalStateException e) {
+                    result = true;
+                }
+                return result;
+            }
+            
+        });
+        Assert.assertTrue(rejected);
+        BindValuesInstantiator.bind(config, getSystemState()); // still possible afterwards
+    }
+
+}
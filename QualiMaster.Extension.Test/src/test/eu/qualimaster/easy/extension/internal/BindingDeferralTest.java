@@ -0,0 +1,99 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.eu.qualimaster.easy.extension.internal;
+
+import java.util.HashMap;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import eu.qualimaster.easy.extension.internal.BindValuesInstantiator;
+import eu.qualimaster.easy.extension.internal.BindingPriorities;
+import eu.qualimaster.easy.extension.internal.BindingPriorities.Priority;
+import eu.qualimaster.easy.extension.internal.BindingResult;
+import eu.qualimaster.monitoring.events.FrozenSystemState;
+import net.ssehub.easy.varModel.confModel.Configuration;
+
+/**
+ * Tests prioritized binding and deferring low priority values.
+ */
+public class BindingDeferralTest extends AbstractBindingTest {
+
+    /**
+     * Removes the priorities defined by a test.
+     */
+    @After
+    public void tearDownPriorities() {
+        BindingPriorities.clear();
+    }
+
+    /**
+     * Tests that low priority values exceeding the time budget are deferred to the next binding.
+     */
+    @Test
+    public void testLowPriorityDeferral() {
+        Configuration config = getConfiguration();
+        BindingPriorities.setPriority(null, null, Priority.LOW); // all keys
+        BindingPriorities.setTimeBudget(1);
+        BindingResult result = BindValuesInstantiator.bind(config, getSystemState());
+        int deferred = result.getDeferredCount();
+        Assert.assertTrue(deferred > 0); // resolving all values initially takes longer than the budget
+
+        BindingPriorities.setTimeBudget(0);
+        result = BindValuesInstantiator.bind(config, new HashMap<String, Object>());
+        Assert.assertEquals(deferred, result.getKeyCount()); // deferred values are bound now
+        Assert.assertEquals(0, result.getDeferredCount());
+        result = BindValuesInstantiator.bind(config, new HashMap<String, Object>());
+        Assert.assertEquals(0, result.getKeyCount());
+    }
+
+    /**
+     * Tests that values of high priority are bound before low priority values, i.e., they are not deferred.
+     */
+    @Test
+    public void testHighPriorityFirst() {
+        Configuration config = getConfiguration();
+        BindingPriorities.setPriority(null, null, Priority.LOW);
+        BindingPriorities.setPriority(FrozenSystemState.PIPELINE, null, Priority.HIGH);
+        BindingPriorities.setTimeBudget(1);
+        int high = 0;
+        String prefix = FrozenSystemState.PIPELINE + FrozenSystemState.SEPARATOR;
+        for (String key : getSystemState().getMapping().keySet()) {
+            if (key.startsWith(prefix)) {
+                high++;
+            }
+        }
+        BindingResult result = BindValuesInstantiator.bind(config, getSystemState());
+        Assert.assertTrue(result.getDeferredCount() > 0);
+        Assert.assertTrue(result.getDeferredCount() <= result.getKeyCount() - high);
+    }
+
+    /**
+     * Tests that values of high and normal priority are never deferred.
+     */
+    @Test
+    public void testNoDeferralAboveLowPriority() {
+        BindingPriorities.setPriority(null, null, Priority.HIGH);
+        BindingPriorities.setTimeBudget(1);
+        BindingResult result = BindValuesInstantiator.bind(getConfiguration(), getSystemState());
+        Assert.assertEquals(0, result.getDeferredCount());
+        BindingPriorities.setPriority(null, null, Priority.NORMAL); // invalidates cached priorities
+        result = BindValuesInstantiator.bind(getConfiguration(), getSystemState());
+        Assert.assertEquals(0, result.getDeferredCount());
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.eu.qualimaster.easy.extension.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import eu.qualimaster.easy.extension.internal.BindValuesInstantiator;
+import eu.qualimaster.easy.extension.internal.BindingJournal;
+import eu.qualimaster.easy.extension.internal.BindingResult;
+
+/**
+ * Tests journaling bindings via {@link BindingJournal} and replaying them.
+ */
+public class BindingJournalTest extends AbstractBindingTest {
+
+    private static final String KEY = "Pipeline:SwitchPip:LATENCY";
+    private File dir;
+
+    /**
+     * Enables the journal with small segments in a temporary directory.
+     * 
+     * @throws IOException shall not occur
+     */
+    @Before
+    public void enableJournal() throws IOException {
+        dir = Files.createTempDirectory("qmJournal").toFile();
+        BindingJournal.setSegmentSize(256);
+        BindingJournal.setMaxSegments(2);
+        BindingJournal.setDirectory(dir);
+    }
+
+    /**
+     * Disables the journal and deletes the temporary directory.
+     */
+    @After
+    public void disableJournal() {
+        BindingJournal.setDirectory(null);
+        BindingJournal.setSegmentSize(4 * 1024 * 1024);
+        BindingJournal.setMaxSegments(4);
+        File[] files = dir.listFiles();
+        for (int f = 0; null != files && f < files.length; f++) {
+            files[f].delete();
+        }
+        dir.delete();
+    }
+
+    /**
+     * Tests that segments are rolled over and compacted and that the last values are replayed.
+     */
+    @Test
+    public void testRollOverCompactionReplay() {
+        BindValuesInstantiator.bind(getConfiguration(), getSystemState());
+        for (int b = 0; b < 50; b++) {
+            Map<String, Object> bindings = new HashMap<String, Object>();
+            bindings.put(KEY, 100.0 + b);
+            BindValuesInstantiator.bind(getConfiguration(), bindings);
+        }
+        BindingJournal.flush();
+        File[] segments = getSegments();
+        Assert.assertTrue(segments.length >= 1 && segments.length <= 2); // compacted + current
+        Assert.assertFalse("bindings-00000000.qmj".equals(segments[segments.length - 1].getName())); // rolled
+        
+        Map<String, Object> values = BindingJournal.readLastValues();
+        Assert.assertEquals(149.0, values.get(KEY));
+        Assert.assertTrue(values.size() > 1); // values of the system state survived the compaction
+        
+        long size = getSize();
+        BindingResult result = BindValuesInstantiator.replayJournal(getConfiguration());
+        Assert.assertEquals(values.size(), result.getKeyCount());
+        BindingJournal.flush();
+        Assert.assertEquals(size, getSize()); // replayed values are not journaled again
+    }
+
+    /**
+     * Tests that a snapshot bound twice is journaled once.
+     */
+    @Test
+    public void testOncePerSnapshot() {
+        Map<String, Object> bindings = new HashMap<String, Object>();
+        bindings.put(KEY, 100.0);
+        BindValuesInstantiator.bind(getConfiguration(), bindings);
+        BindingJournal.flush();
+        long size = getSize();
+        Assert.assertTrue(size > 0);
+        BindValuesInstantiator.bind(getConfiguration(), bindings);
+        BindingJournal.flush();
+        Assert.assertEquals(size, getSize());
+    }
+
+    /**
+     * Returns the journal segments in ascending order.
+     * 
+     * @return the segments
+     */
+    private File[] getSegments() {
+        File[] result = dir.listFiles();
+        Assert.assertNotNull(result);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Returns the size of all journal segments.
+     * 
+     * @return the size in bytes
+     */
+    private long getSize() {
+        long result = 0;
+        File[] segments = getSegments();
+        for (int s = 0; s < segments.length; s++) {
+            result += segments[s].length();
+        }
+        return result;
+    }
+
+}
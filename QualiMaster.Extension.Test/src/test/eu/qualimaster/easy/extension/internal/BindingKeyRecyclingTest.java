@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.eu.qualimaster.easy.extension.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import eu.qualimaster.easy.extension.internal.BindValuesInstantiator;
+import eu.qualimaster.easy.extension.internal.BindingResult;
+import eu.qualimaster.easy.extension.internal.IvmlElementIdentifier;
+import net.ssehub.easy.varModel.confModel.Configuration;
+
+/**
+ * Tests recycling the int codes of observable keys if observable keys keep changing.
+ */
+public class BindingKeyRecyclingTest extends AbstractBindingTest {
+
+    private int capacity;
+
+    /**
+     * Reduces the cache capacity and, thus, the limit for recycling the observable keys.
+     */
+    @Before
+    public void setUpCapacity() {
+        capacity = IvmlElementIdentifier.getCacheCapacity();
+        IvmlElementIdentifier.setCacheCapacity(10);
+    }
+
+    /**
+     * Restores the cache capacity.
+     */
+    @After
+    public void tearDownCapacity() {
+        IvmlElementIdentifier.setCacheCapacity(capacity);
+    }
+
+    /**
+     * Tests that binding remains functional while observable keys are recycled.
+     */
+    @Test
+    public void testRecycling() {
+        Configuration config = getConfiguration();
+        BindValuesInstantiator.setDeltaBinding(true);
+        try {
+            BindingResult result = BindValuesInstantiator.bind(config, getSystemState());
+            Assert.assertFalse(result.getChangedVariables().isEmpty());
+            for (int b = 0; b < 100; b++) {
+                Map<String, Object> bindings = new HashMap<String, Object>();
+                for (int k = 0; k < 20; k++) {
+                    bindings.put("Pipeline:pip" + b + "_" + k + ":LATENCY", 100.0); // new keys, unresolvable
+                }
+                result = BindValuesInstantiator.bind(config, bindings);
+                Assert.assertEquals(20, result.getKeyCount());
+            }
+            result = BindValuesInstantiator.bind(config, getSystemState());
+            Assert.assertEquals(getSystemState().getMapping().size(), result.getKeyCount());
+            Assert.assertEquals(0, result.getSkippedCount()); // last values were dropped with the recycled keys
+        } finally {
+            BindValuesInstantiator.setDeltaBinding(false);
+        }
+    }
+
+}
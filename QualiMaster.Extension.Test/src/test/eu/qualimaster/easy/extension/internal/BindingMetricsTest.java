@@ -0,0 +1,120 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.eu.qualimaster.easy.extension.internal;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import eu.qualimaster.easy.extension.internal.BindingMetrics;
+
+/**
+ * Tests {@link BindingMetrics}.
+ */
+public class BindingMetricsTest {
+
+    /**
+     * Tests the histogram buckets.
+     */
+    @Test
+    public void testBuckets() {
+        long[] bounds = BindingMetrics.INSTANCE.getLatencyBucketBounds();
+        Assert.assertEquals(bounds.length + 1, BindingMetrics.INSTANCE.getBindingLatencyHistogram().length);
+        Assert.assertEquals(bounds.length + 1, BindingMetrics.INSTANCE.getTakeoverLatencyHistogram().length);
+        Assert.assertEquals(0, BindingMetrics.getBucket(0));
+        Assert.assertEquals(0, BindingMetrics.getBucket(millis(bounds[0]) - 1));
+        for (int b = 0; b < bounds.length; b++) {
+            Assert.assertEquals(b + 1, BindingMetrics.getBucket(millis(bounds[b]))); // upper bound is exclusive
+            Assert.assertEquals(b, BindingMetrics.getBucket(millis(bounds[b]) - 1));
+        }
+        Assert.assertEquals(bounds.length, BindingMetrics.getBucket(millis(bounds[bounds.length - 1]) * 100));
+        Assert.assertEquals(bounds.length, BindingMetrics.getBucket(Long.MAX_VALUE));
+    }
+
+    /**
+     * Tests that the bucket bounds cannot be modified from outside.
+     */
+    @Test
+    public void testBoundsCopied() {
+        long[] bounds = BindingMetrics.INSTANCE.getLatencyBucketBounds();
+        long first = bounds[0];
+        bounds[0] = -1;
+        Assert.assertEquals(first, BindingMetrics.INSTANCE.getLatencyBucketBounds()[0]);
+    }
+
+    /**
+     * Tests resetting the metrics.
+     */
+    @Test
+    public void testReset() {
+        BindingMetrics.INSTANCE.reset();
+        Assert.assertEquals(0, BindingMetrics.INSTANCE.getBindingCount());
+        Assert.assertEquals(0, BindingMetrics.INSTANCE.getKeysPerBinding(), 0.0001);
+        Assert.assertEquals(0, BindingMetrics.INSTANCE.getRebuildCount());
+        Assert.assertEquals(0, BindingMetrics.INSTANCE.getIdentifierBuildCount());
+        Assert.assertEquals(0, BindingMetrics.INSTANCE.getTotalIdentifierBuildMillis());
+        Assert.assertEquals(0, sum(BindingMetrics.INSTANCE.getBindingLatencyHistogram()));
+        Assert.assertEquals(0, sum(BindingMetrics.INSTANCE.getTakeoverLatencyHistogram()));
+    }
+
+    /**
+     * Tests registering the metrics with the platform MBean server.
+     * 
+     * @throws JMException shall not occur
+     */
+    @Test
+    public void testRegistration() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(BindingMetrics.OBJECT_NAME);
+        BindingMetrics.register();
+        BindingMetrics.register(); // no effect
+        Assert.assertTrue(server.isRegistered(name));
+        Assert.assertNotNull(server.getAttribute(name, "BindingLatencyHistogram"));
+        BindingMetrics.unregister();
+        Assert.assertFalse(server.isRegistered(name));
+    }
+
+    /**
+     * Turns milliseconds into nanoseconds.
+     * 
+     * @param millis the milliseconds
+     * @return the nanoseconds
+     */
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * Sums up the counts of a histogram.
+     * 
+     * @param histogram the histogram
+     * @return the sum
+     */
+    private static long sum(long[] histogram) {
+        long result = 0;
+        for (int h = 0; h < histogram.length; h++) {
+            result += histogram[h];
+        }
+        return result;
+    }
+
+}
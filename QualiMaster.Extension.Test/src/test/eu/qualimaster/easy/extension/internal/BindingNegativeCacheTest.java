@@ -0,0 +1,61 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.eu.qualimaster.easy.extension.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import eu.qualimaster.easy.extension.internal.BindValuesInstantiator;
+import eu.qualimaster.easy.extension.internal.IvmlElementIdentifier;
+
+/**
+ * Tests the negative cache of unresolvable observable IDs.
+ */
+public class BindingNegativeCacheTest extends AbstractBindingTest {
+
+    private static final String PIPELINE = "SwitchPip";
+    private static final String UNRESOLVABLE = "PipelineElement:" + PIPELINE + ":noSuchElement:LATENCY";
+
+    /**
+     * Tests that an unresolvable observable ID is recorded (and logged) only once and resolved again after its
+     * pipeline was started.
+     */
+    @Test
+    public void testFailureCachedUntilPipelineStart() {
+        Map<String, Object> bindings = new HashMap<String, Object>();
+        bindings.put(UNRESOLVABLE, 100.0);
+        long failures = IvmlElementIdentifier.getResolutionFailureCount();
+        BindValuesInstantiator.bind(getConfiguration(), bindings);
+        Assert.assertEquals(failures + 1, IvmlElementIdentifier.getResolutionFailureCount());
+        BindValuesInstantiator.bind(getConfiguration(), bindings);
+        BindValuesInstantiator.bind(getConfiguration(), bindings);
+        Assert.assertEquals(failures + 1, IvmlElementIdentifier.getResolutionFailureCount()); // skipped, not logged
+
+        BindValuesInstantiator.invalidatePipeline("otherPipeline"); // unrelated pipeline started
+        BindValuesInstantiator.bind(getConfiguration(), bindings);
+        Assert.assertEquals(failures + 1, IvmlElementIdentifier.getResolutionFailureCount());
+
+        BindValuesInstantiator.invalidatePipeline(PIPELINE); // as on pipeline start, resolve again
+        BindValuesInstantiator.bind(getConfiguration(), bindings);
+        Assert.assertEquals(failures + 2, IvmlElementIdentifier.getResolutionFailureCount());
+        BindValuesInstantiator.bind(getConfiguration(), bindings);
+        Assert.assertEquals(failures + 2, IvmlElementIdentifier.getResolutionFailureCount());
+    }
+
+}
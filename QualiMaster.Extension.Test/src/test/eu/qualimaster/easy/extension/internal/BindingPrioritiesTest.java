@@ -0,0 +1,90 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.eu.qualimaster.easy.extension.internal;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import eu.qualimaster.easy.extension.internal.BindingPriorities;
+import eu.qualimaster.easy.extension.internal.BindingPriorities.Priority;
+import eu.qualimaster.monitoring.events.FrozenSystemState;
+
+/**
+ * Tests {@link BindingPriorities}.
+ */
+public class BindingPrioritiesTest {
+
+    private static final String AVAILABLE = "Machine:m1:AVAILABLE";
+    private static final String LATENCY = "Pipeline:pip:LATENCY";
+    private static final String USED_MEMORY = "Machine:m1:USED_MEMORY";
+    private static final String ITEMS = "PipelineElement:pip:elt:ITEMS";
+
+    /**
+     * Removes the priorities defined by a test.
+     */
+    @After
+    public void tearDown() {
+        BindingPriorities.clear();
+    }
+
+    /**
+     * Tests the default priority.
+     */
+    @Test
+    public void testDefault() {
+        Assert.assertEquals(Priority.NORMAL, BindingPriorities.getPriority(AVAILABLE));
+        Assert.assertEquals(Priority.NORMAL, BindingPriorities.getPriority("unknown"));
+    }
+
+    /**
+     * Tests that the most specific priority setting applies.
+     */
+    @Test
+    public void testSpecificity() {
+        BindingPriorities.setPriority(null, null, Priority.HIGH);
+        Assert.assertEquals(Priority.HIGH, BindingPriorities.getPriority(AVAILABLE));
+        Assert.assertEquals(Priority.HIGH, BindingPriorities.getPriority(USED_MEMORY));
+        BindingPriorities.setPriority(FrozenSystemState.MACHINE, null, Priority.LOW);
+        Assert.assertEquals(Priority.LOW, BindingPriorities.getPriority(AVAILABLE));
+        Assert.assertEquals(Priority.LOW, BindingPriorities.getPriority(USED_MEMORY));
+        BindingPriorities.setPriority(null, "AVAILABLE", Priority.NORMAL);
+        Assert.assertEquals(Priority.NORMAL, BindingPriorities.getPriority(AVAILABLE));
+        Assert.assertEquals(Priority.LOW, BindingPriorities.getPriority(USED_MEMORY));
+        BindingPriorities.setPriority(FrozenSystemState.MACHINE, "AVAILABLE", Priority.HIGH);
+        Assert.assertEquals(Priority.HIGH, BindingPriorities.getPriority(AVAILABLE));
+        BindingPriorities.setPriority(FrozenSystemState.MACHINE, "AVAILABLE", null); // remove again
+        Assert.assertEquals(Priority.NORMAL, BindingPriorities.getPriority(AVAILABLE));
+        BindingPriorities.clear();
+        Assert.assertEquals(Priority.NORMAL, BindingPriorities.getPriority(USED_MEMORY));
+    }
+
+    /**
+     * Tests the time budget.
+     */
+    @Test
+    public void testTimeBudget() {
+        Assert.assertEquals(0, BindingPriorities.getTimeBudget());
+        BindingPriorities.setTimeBudget(10);
+        Assert.assertEquals(10, BindingPriorities.getTimeBudget());
+        BindingPriorities.setTimeBudget(-1);
+        Assert.assertEquals(0, BindingPriorities.getTimeBudget());
+        BindingPriorities.setTimeBudget(10);
+        BindingPriorities.clear();
+        Assert.assertEquals(0, BindingPriorities.getTimeBudget());
+    }
+
+}
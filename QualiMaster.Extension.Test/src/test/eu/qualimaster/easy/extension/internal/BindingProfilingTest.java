@@ -0,0 +1,57 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.eu.qualimaster.easy.extension.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import eu.qualimaster.easy.extension.internal.BindValuesInstantiator;
+import eu.qualimaster.easy.extension.internal.BindingResult;
+import eu.qualimaster.easy.extension.internal.IvmlElementIdentifier;
+
+/**
+ * Tests dropping the observations of pipelines being profiled.
+ */
+public class BindingProfilingTest extends AbstractBindingTest {
+
+    private static final String PIPELINE = "SwitchPip";
+
+    /**
+     * Tests that observations of a profiled pipeline are dropped and counted.
+     */
+    @Test
+    public void testProfilingDrops() {
+        Map<String, Object> bindings = new HashMap<String, Object>();
+        bindings.put("Pipeline:" + PIPELINE + ":LATENCY", 140.0);
+        bindings.put("Pipeline:" + PIPELINE + ":THROUGHPUT_ITEMS", 10.0);
+        bindings.put("Pipeline:otherPip:LATENCY", 100.0);
+        bindings.put("Infrastructure::USED_MACHINES", 5.0);
+        IvmlElementIdentifier.setProfiling(PIPELINE, true);
+        try {
+            BindingResult result = BindValuesInstantiator.bind(getConfiguration(), bindings);
+            Assert.assertEquals(4, result.getKeyCount());
+            Assert.assertEquals(2, result.getProfilingCount());
+        } finally {
+            IvmlElementIdentifier.setProfiling(PIPELINE, false);
+        }
+        BindingResult result = BindValuesInstantiator.bind(getConfiguration(), bindings);
+        Assert.assertEquals(0, result.getProfilingCount());
+    }
+
+}
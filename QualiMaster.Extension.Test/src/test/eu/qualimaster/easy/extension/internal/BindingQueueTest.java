@@ -0,0 +1,198 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.eu.qualimaster.easy.extension.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import eu.qualimaster.easy.extension.internal.BindingQueue;
+import eu.qualimaster.easy.extension.internal.BindingResult;
+
+/**
+ * Tests {@link BindingQueue}.
+ */
+public class BindingQueueTest {
+
+    /**
+     * A binding queue recording the applied bindings instead of binding them. The first binding is held back until
+     * it is {@link #release() released}.
+     */
+    private static class RecordingQueue extends BindingQueue {
+
+        private List<Map<String, Object>> applied = new ArrayList<Map<String, Object>>();
+        private CountDownLatch started = new CountDownLatch(1);
+        private CountDownLatch release = new CountDownLatch(1);
+
+        /**
+         * Creates a recording queue.
+         * 
+         * @param capacity the maximum number of submissions that are not yet applied
+         * @param idleTimeout the time in milliseconds after which an idle worker terminates
+         */
+        private RecordingQueue(int capacity, long idleTimeout) {
+            super(null, capacity, idleTimeout);
+        }
+        
+        @Override
+        protected BindingResult bind(Map<String, Object> bindings) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (applied) {
+                applied.add(new HashMap<String, Object>(bindings));
+            }
+            return null;
+        }
+        
+        /**
+         * Waits until the worker started applying the first binding.
+         * 
+         * @throws InterruptedException if interrupted while waiting
+         */
+        private void awaitStarted() throws InterruptedException {
+            Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        }
+
+        /**
+         * Releases the held back binding.
+         */
+        private void release() {
+            release.countDown();
+        }
+        
+        /**
+         * Returns the applied bindings.
+         * 
+         * @return the applied bindings
+         */
+        private List<Map<String, Object>> getApplied() {
+            synchronized (applied) {
+                return new ArrayList<Map<String, Object>>(applied);
+            }
+        }
+        
+    }
+    
+    /**
+     * Creates a binding.
+     * 
+     * @param key the key
+     * @param value the value
+     * @return the binding
+     */
+    private static Map<String, Object> binding(String key, Object value) {
+        Map<String, Object> result = new HashMap<String, Object>();
+        result.put(key, value);
+        return result;
+    }
+
+    /**
+     * Tests that submissions pending while a binding is applied are merged, the latest value winning.
+     * 
+     * @throws InterruptedException shall not occur
+     * @throws ExecutionException shall not occur
+     * @throws TimeoutException shall not occur
+     */
+    @Test
+    public void testCoalescing() throws InterruptedException, ExecutionException, TimeoutException {
+        RecordingQueue queue = new RecordingQueue(3, BindingQueue.DEFAULT_IDLE_TIMEOUT);
+        Future<BindingResult> first = queue.submit(binding("a", 1));
+        queue.awaitStarted();
+        Future<BindingResult> second = queue.submit(binding("b", 1));
+        Future<BindingResult> third = queue.submit(binding("b", 2));
+        queue.release();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        third.get(5, TimeUnit.SECONDS);
+        List<Map<String, Object>> applied = queue.getApplied();
+        Assert.assertEquals(2, applied.size());
+        Assert.assertEquals(binding("a", 1), applied.get(0));
+        Assert.assertEquals(binding("b", 2), applied.get(1));
+    }
+
+    /**
+     * Tests that submitters block while the capacity is exhausted, including the binding being applied.
+     * 
+     * @throws InterruptedException shall not occur
+     * @throws ExecutionException shall not occur
+     * @throws TimeoutException shall not occur
+     */
+    @Test
+    public void testBackPressure() throws InterruptedException, ExecutionException, TimeoutException {
+        final RecordingQueue queue = new RecordingQueue(1, BindingQueue.DEFAULT_IDLE_TIMEOUT);
+        Future<BindingResult> first = queue.submit(binding("a", 1));
+        queue.awaitStarted();
+        final List<Future<BindingResult>> submitted = new ArrayList<Future<BindingResult>>();
+        Thread submitter = new Thread() {
+            
+            @Override
+            public void run() {
+                Future<BindingResult> future = queue.submit(binding("a", 2));
+                synchronized (submitted) {
+                    submitted.add(future);
+                }
+            }
+            
+        };
+        submitter.start();
+        submitter.join(200);
+        Assert.assertTrue(submitter.isAlive()); // blocked as the first binding is not yet applied
+        queue.release();
+        first.get(5, TimeUnit.SECONDS);
+        submitter.join(5000);
+        Assert.assertFalse(submitter.isAlive());
+        synchronized (submitted) {
+            Assert.assertEquals(1, submitted.size());
+            submitted.get(0).get(5, TimeUnit.SECONDS);
+        }
+        Assert.assertEquals(2, queue.getApplied().size());
+    }
+
+    /**
+     * Tests that an idle worker terminates and is restarted on the next submission.
+     * 
+     * @throws InterruptedException shall not occur
+     * @throws ExecutionException shall not occur
+     * @throws TimeoutException shall not occur
+     */
+    @Test
+    public void testIdleShutdown() throws InterruptedException, ExecutionException, TimeoutException {
+        RecordingQueue queue = new RecordingQueue(1, 50);
+        queue.release();
+        queue.submit(binding("a", 1)).get(5, TimeUnit.SECONDS);
+        long end = System.currentTimeMillis() + 5000;
+        while (queue.isRunning() && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        Assert.assertFalse(queue.isRunning());
+        queue.submit(binding("a", 2)).get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(2, queue.getApplied().size());
+    }
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.eu.qualimaster.easy.extension.internal;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import eu.qualimaster.easy.extension.internal.BindValuesInstantiator;
+import net.ssehub.easy.varModel.confModel.Configuration;
+
+/**
+ * Tests releasing the binding information of discarded configurations.
+ */
+public class BindingReleaseTest extends AbstractBindingTest {
+
+    /**
+     * Tests that releasing a configuration unregisters its binder.
+     */
+    @Test
+    public void testRelease() {
+        Configuration config = getConfiguration();
+        BindValuesInstantiator.bind(config, getSystemState());
+        int registered = BindValuesInstantiator.getRegisteredConfigurationCount();
+        BindValuesInstantiator.release(config); // testing configuration is discarded
+        Assert.assertEquals(registered - 1, BindValuesInstantiator.getRegisteredConfigurationCount());
+    }
+
+}
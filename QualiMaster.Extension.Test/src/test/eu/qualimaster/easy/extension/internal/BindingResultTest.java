@@ -0,0 +1,114 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.eu.qualimaster.easy.extension.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import eu.qualimaster.easy.extension.internal.BindValuesInstantiator;
+import eu.qualimaster.easy.extension.internal.BindingResult;
+import net.ssehub.easy.varModel.confModel.Configuration;
+import net.ssehub.easy.varModel.confModel.IConfigurationElement;
+import net.ssehub.easy.varModel.confModel.IDecisionVariable;
+import net.ssehub.easy.varModel.cst.CSTSemanticException;
+import net.ssehub.easy.varModel.cst.OCLFeatureCall;
+import net.ssehub.easy.varModel.cst.Variable;
+import net.ssehub.easy.varModel.model.AbstractVariable;
+import net.ssehub.easy.varModel.model.Constraint;
+import net.ssehub.easy.varModel.model.DecisionVariableDeclaration;
+import net.ssehub.easy.varModel.model.Project;
+import net.ssehub.easy.varModel.model.datatypes.IntegerType;
+import net.ssehub.easy.varModel.model.datatypes.OclKeyWords;
+
+/**
+ * Tests {@link BindingResult}.
+ */
+public class BindingResultTest extends AbstractBindingTest {
+
+    /**
+     * Tests selecting the constraints affected by a binding.
+     * 
+     * @throws CSTSemanticException shall not occur
+     */
+    @Test
+    public void testSelectAffectedConstraints() throws CSTSemanticException {
+        Configuration config = getConfiguration();
+        Project project = config.getProject();
+        BindingResult result = BindValuesInstantiator.bind(config, getSystemState());
+        Assert.assertFalse(result.getChangedVariables().isEmpty());
+        IDecisionVariable changed = result.getChangedVariables().iterator().next();
+        IConfigurationElement top = changed;
+        while (top.getParent() instanceof IDecisionVariable) {
+            top = top.getParent();
+        }
+        Constraint onChanged = createConstraint(changed.getDeclaration(), project);
+        Constraint onParent = createConstraint(top.getDeclaration(), project);
+        Constraint unaffected = createConstraint(
+            new DecisionVariableDeclaration("unrelated", IntegerType.TYPE, project), project);
+        List<Constraint> constraints = new ArrayList<Constraint>();
+        constraints.add(onChanged);
+        constraints.add(onParent);
+        constraints.add(unaffected);
+        
+        List<Constraint> selected = result.selectAffectedConstraints(constraints);
+        Assert.assertTrue(selected.contains(onChanged));
+        Assert.assertTrue(selected.contains(onParent));
+        Assert.assertFalse(selected.contains(unaffected));
+        Assert.assertEquals(2, selected.size());
+    }
+
+    /**
+     * Tests that no constraints are selected if the binding did not change any variable.
+     * 
+     * @throws CSTSemanticException shall not occur
+     */
+    @Test
+    public void testSelectNoConstraints() throws CSTSemanticException {
+        Configuration config = getConfiguration();
+        BindingResult result = BindValuesInstantiator.bind(config, getSystemState());
+        Assert.assertFalse(result.getChangedVariables().isEmpty());
+        List<Constraint> constraints = new ArrayList<Constraint>();
+        constraints.add(createConstraint(result.getChangedVariables().iterator().next().getDeclaration(), 
+            config.getProject()));
+        BindValuesInstantiator.setDeltaBinding(true);
+        try {
+            BindValuesInstantiator.bind(config, getSystemState()); // remember the values
+            result = BindValuesInstantiator.bind(config, getSystemState());
+        } finally {
+            BindValuesInstantiator.setDeltaBinding(false);
+        }
+        Assert.assertTrue(result.getChangedVariables().isEmpty());
+        Assert.assertTrue(result.selectAffectedConstraints(constraints).isEmpty());
+    }
+
+    /**
+     * Creates a constraint referring to <code>var</code>.
+     * 
+     * @param var the variable to refer to
+     * @param project the project to create the constraint for
+     * @return the constraint
+     * @throws CSTSemanticException shall not occur
+     */
+    private static Constraint createConstraint(AbstractVariable var, Project project) throws CSTSemanticException {
+        Constraint result = new Constraint(project);
+        result.setConsSyntax(new OCLFeatureCall(new Variable(var), OclKeyWords.IS_DEFINED));
+        return result;
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.eu.qualimaster.easy.extension.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import eu.qualimaster.coordination.RepositoryConnector;
+import eu.qualimaster.coordination.RepositoryConnector.IPhase;
+import eu.qualimaster.easy.extension.internal.BindValuesInstantiator;
+import eu.qualimaster.easy.extension.internal.BindingResult;
+import eu.qualimaster.easy.extension.internal.CacheStatistics;
+import eu.qualimaster.easy.extension.internal.IvmlElementIdentifier;
+import eu.qualimaster.monitoring.events.FrozenSystemState;
+import net.ssehub.easy.varModel.confModel.Configuration;
+import net.ssehub.easy.varModel.confModel.IDecisionVariable;
+import net.ssehub.easy.varModel.model.values.Value;
+
+/**
+ * Tests binding the values of different pipelines in parallel.
+ */
+public class BindingShardTest extends AbstractBindingTest {
+
+    /**
+     * Disables parallel binding again.
+     */
+    @After
+    public void tearDownParallelBinding() {
+        BindValuesInstantiator.setParallelBinding(0);
+    }
+
+    /**
+     * Tests that a parallel binding leads to the same values as a serial binding and retains the phase of the 
+     * calling thread.
+     */
+    @Test
+    public void testShardedBinding() {
+        Configuration config = getConfiguration();
+        BindValuesInstantiator.setParallelBinding(2);
+        Assert.assertTrue(BindValuesInstantiator.isParallelBinding());
+        IPhase phase = RepositoryConnector.getPhase(Thread.currentThread());
+        BindingResult result = BindValuesInstantiator.bind(config, getSystemState());
+        Assert.assertEquals(phase, RepositoryConnector.getPhase(Thread.currentThread()));
+        Assert.assertFalse(result.getChangedVariables().isEmpty());
+        Map<IDecisionVariable, Object> parallel = new HashMap<IDecisionVariable, Object>();
+        for (IDecisionVariable var : result.getChangedVariables()) {
+            parallel.put(var, getValue(var));
+        }
+        
+        BindValuesInstantiator.setParallelBinding(0);
+        Assert.assertFalse(BindValuesInstantiator.isParallelBinding());
+        BindValuesInstantiator.bind(config, getSystemState());
+        for (Map.Entry<IDecisionVariable, Object> entry : parallel.entrySet()) {
+            Assert.assertEquals(entry.getKey().getQualifiedName(), entry.getValue(), getValue(entry.getKey()));
+        }
+    }
+
+    /**
+     * Tests that warming up with parallel binding enabled also warms up the shards of the pipelines.
+     */
+    @Test
+    public void testWarmUpShards() {
+        BindValuesInstantiator.setParallelBinding(2);
+        Assert.assertTrue(BindValuesInstantiator.warmUp(getModels(), false) > 0);
+        int actualKeys = 0;
+        for (String key : getSystemState().getMapping().keySet()) {
+            if (key.startsWith(FrozenSystemState.ACTUAL + FrozenSystemState.SEPARATOR)) {
+                actualKeys++;
+            }
+        }
+        CacheStatistics statistics = IvmlElementIdentifier.getResolutionCacheStatistics();
+        long misses = statistics.getMisses();
+        BindValuesInstantiator.bind(getConfiguration(), getSystemState());
+        Assert.assertTrue(statistics.getMisses() - misses <= actualKeys); // as for BindingWarmUpTest
+    }
+
+    /**
+     * Returns the plain value of a variable.
+     * 
+     * @param var the variable
+     * @return the plain value, <b>null</b> if there is none
+     */
+    private static Object getValue(IDecisionVariable var) {
+        Value value = var.getValue();
+        return null == value ? null : value.getValue();
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.eu.qualimaster.easy.extension.internal;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import eu.qualimaster.easy.extension.QmConstants;
+import eu.qualimaster.easy.extension.internal.BindValuesInstantiator;
+import eu.qualimaster.easy.extension.internal.VariableHelper;
+import net.ssehub.easy.varModel.confModel.AssignmentState;
+import net.ssehub.easy.varModel.confModel.Configuration;
+import net.ssehub.easy.varModel.confModel.ConfigurationException;
+import net.ssehub.easy.varModel.confModel.IDecisionVariable;
+import net.ssehub.easy.varModel.model.values.NullValue;
+import net.ssehub.easy.varModel.model.values.ReferenceValue;
+import net.ssehub.easy.varModel.model.values.Value;
+
+/**
+ * Tests writing and restoring snapshots of bound values.
+ */
+public class BindingSnapshotTest extends AbstractBindingTest {
+
+    /**
+     * Tests writing and restoring a snapshot.
+     * 
+     * @throws IOException shall not occur
+     */
+    @Test
+    public void testSnapshot() throws IOException {
+        Configuration config = getConfiguration();
+        BindValuesInstantiator.bind(config, getSystemState());
+        File snapshot = File.createTempFile("bindings", ".snapshot");
+        try {
+            int written = BindValuesInstantiator.writeSnapshot(config, snapshot);
+            Assert.assertTrue(written > 0);
+            Assert.assertEquals(written, BindValuesInstantiator.restoreSnapshot(config, snapshot));
+        } finally {
+            snapshot.delete();
+        }
+    }
+
+    /**
+     * Tests that a reference to an actual algorithm is restored.
+     * 
+     * @throws IOException shall not occur
+     * @throws ConfigurationException shall not occur
+     */
+    @Test
+    public void testReference() throws IOException, ConfigurationException {
+        Configuration config = getConfiguration();
+        BindValuesInstantiator.bind(config, getSystemState());
+        IDecisionVariable actual = findTopLevel(config, "famElt1").getNestedElement(QmConstants.SLOT_ACTUAL);
+        Assert.assertEquals("SwitchProcessor1", getActualName(config, actual));
+        File snapshot = File.createTempFile("bindings", ".snapshot");
+        try {
+            Assert.assertTrue(BindValuesInstantiator.writeSnapshot(config, snapshot) > 0);
+            actual.setValue(NullValue.INSTANCE, AssignmentState.USER_ASSIGNED);
+            Assert.assertNull(getActualName(config, actual));
+            Assert.assertTrue(BindValuesInstantiator.restoreSnapshot(config, snapshot) > 0);
+            Assert.assertEquals("SwitchProcessor1", getActualName(config, actual));
+        } finally {
+            snapshot.delete();
+        }
+    }
+
+    /**
+     * Returns the top-level variable named <code>name</code>.
+     * 
+     * @param config the configuration
+     * @param name the name of the variable
+     * @return the variable
+     */
+    private static IDecisionVariable findTopLevel(Configuration config, String name) {
+        IDecisionVariable result = null;
+        for (IDecisionVariable variable : config) {
+            if (name.equals(variable.getDeclaration().getName())) {
+                result = variable;
+            }
+        }
+        Assert.assertNotNull("Variable " + name + " not expected to be null", result);
+        return result;
+    }
+
+    /**
+     * Returns the name of the algorithm referenced by <code>actual</code>.
+     * 
+     * @param config the configuration
+     * @param actual the actual slot
+     * @return the name, <b>null</b> if there is no reference
+     */
+    private static String getActualName(Configuration config, IDecisionVariable actual) {
+        String result = null;
+        Value value = actual.getValue();
+        if (value instanceof ReferenceValue) {
+            result = VariableHelper.getName(config.getDecision(((ReferenceValue) value).getValue()));
+        }
+        return result;
+    }
+
+}
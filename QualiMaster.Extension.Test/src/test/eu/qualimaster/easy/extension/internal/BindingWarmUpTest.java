@@ -0,0 +1,52 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.eu.qualimaster.easy.extension.internal;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import eu.qualimaster.easy.extension.internal.BindValuesInstantiator;
+import eu.qualimaster.easy.extension.internal.CacheStatistics;
+import eu.qualimaster.easy.extension.internal.IvmlElementIdentifier;
+import eu.qualimaster.monitoring.events.FrozenSystemState;
+
+/**
+ * Tests warming up the value binding via {@link BindValuesInstantiator#warmUp(
+ * eu.qualimaster.coordination.RepositoryConnector.Models, boolean)}.
+ */
+public class BindingWarmUpTest extends AbstractBindingTest {
+
+    /**
+     * Tests that warming up resolves the observable IDs sent by the monitoring, including the IDs of mapped 
+     * runtime instances of algorithms and data sources, so that the first binding finds them in the resolution 
+     * cache. IDs of actual algorithms depend on the runtime selection and are not warmed up.
+     */
+    @Test
+    public void testWarmUp() {
+        Assert.assertTrue(BindValuesInstantiator.warmUp(getModels(), true) > 0);
+        int actualKeys = 0;
+        for (String key : getSystemState().getMapping().keySet()) {
+            if (key.startsWith(FrozenSystemState.ACTUAL + FrozenSystemState.SEPARATOR)) {
+                actualKeys++;
+            }
+        }
+        CacheStatistics statistics = IvmlElementIdentifier.getResolutionCacheStatistics();
+        long misses = statistics.getMisses();
+        BindValuesInstantiator.bind(getConfiguration(), getSystemState());
+        Assert.assertTrue(statistics.getMisses() - misses <= actualKeys);
+    }
+
+}
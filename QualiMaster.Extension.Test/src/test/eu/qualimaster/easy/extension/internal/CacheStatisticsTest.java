@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.eu.qualimaster.easy.extension.internal;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import eu.qualimaster.easy.extension.internal.CacheStatistics;
+import eu.qualimaster.easy.extension.internal.IntLruCache;
+
+/**
+ * Tests {@link CacheStatistics}.
+ */
+public class CacheStatisticsTest {
+
+    /**
+     * Tests counting hits and misses.
+     */
+    @Test
+    public void testHitsAndMisses() {
+        CacheStatistics statistics = new CacheStatistics();
+        IntLruCache<String> cache = new IntLruCache<String>(10, statistics);
+        Assert.assertNull(cache.get(1));
+        assertStatistics(statistics, 0, 1, 0);
+        cache.put(1, "a");
+        cache.put(2, "b");
+        Assert.assertEquals("a", cache.get(1));
+        Assert.assertEquals("b", cache.get(2));
+        Assert.assertEquals("a", cache.get(1));
+        Assert.assertNull(cache.get(3));
+        assertStatistics(statistics, 3, 2, 0);
+        cache.remove(1);
+        Assert.assertNull(cache.get(1)); // removal is not an eviction
+        assertStatistics(statistics, 3, 3, 0);
+    }
+
+    /**
+     * Tests counting evictions.
+     */
+    @Test
+    public void testEvictions() {
+        CacheStatistics statistics = new CacheStatistics();
+        IntLruCache<String> cache = new IntLruCache<String>(2, statistics);
+        cache.put(1, "a");
+        cache.put(2, "b");
+        cache.put(2, "c"); // replacement is not an eviction
+        assertStatistics(statistics, 0, 0, 0);
+        cache.put(3, "d");
+        assertStatistics(statistics, 0, 0, 1);
+        Assert.assertNull(cache.get(1));
+        assertStatistics(statistics, 0, 1, 1);
+    }
+
+    /**
+     * Tests sharing statistics among caches and resetting them.
+     */
+    @Test
+    public void testSharingAndReset() {
+        CacheStatistics statistics = new CacheStatistics();
+        IntLruCache<String> cache1 = new IntLruCache<String>(5, statistics);
+        IntLruCache<String> cache2 = new IntLruCache<String>(5, statistics);
+        cache1.put(1, "a");
+        cache1.get(1);
+        cache2.get(1);
+        assertStatistics(statistics, 1, 1, 0);
+        statistics.reset();
+        assertStatistics(statistics, 0, 0, 0);
+        Assert.assertNotNull(statistics.toString());
+    }
+
+    /**
+     * Asserts the counts of <code>statistics</code>.
+     * 
+     * @param statistics the statistics to test
+     * @param hits the expected number of hits
+     * @param misses the expected number of misses
+     * @param evictions the expected number of evictions
+     */
+    private static void assertStatistics(CacheStatistics statistics, long hits, long misses, long evictions) {
+        Assert.assertEquals(hits, statistics.getHits());
+        Assert.assertEquals(misses, statistics.getMisses());
+        Assert.assertEquals(evictions, statistics.getEvictions());
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.eu.qualimaster.easy.extension.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import eu.qualimaster.easy.extension.internal.CacheStatistics;
+import eu.qualimaster.easy.extension.internal.IntLruCache;
+
+/**
+ * Tests {@link IntLruCache}.
+ */
+public class IntLruCacheTest {
+
+    /**
+     * Tests that the least recently used entry is evicted first.
+     */
+    @Test
+    public void testEvictionOrder() {
+        IntLruCache<String> cache = new IntLruCache<String>(3, new CacheStatistics());
+        cache.put(1, "a");
+        cache.put(2, "b");
+        cache.put(3, "c");
+        assertIds(cache, 3, 2, 1);
+        Assert.assertEquals("a", cache.get(1)); // 1 is most recently used now
+        assertIds(cache, 1, 3, 2);
+        cache.put(4, "d"); // evicts 2
+        assertIds(cache, 4, 1, 3);
+        Assert.assertNull(cache.get(2));
+        cache.put(3, "e"); // update, no eviction
+        assertIds(cache, 3, 4, 1);
+        Assert.assertEquals("e", cache.get(3));
+        cache.put(5, "f"); // evicts 1
+        assertIds(cache, 5, 3, 4);
+        cache.remove(3);
+        assertIds(cache, 5, 4);
+        cache.put(4, null); // removes
+        assertIds(cache, 5);
+        Assert.assertEquals(1, cache.size());
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+        Assert.assertNull(cache.get(5));
+    }
+
+    /**
+     * Tests that the memory is bounded by the capacity rather than by the largest key.
+     */
+    @Test
+    public void testMemoryBounds() {
+        final int capacity = 100;
+        IntLruCache<Integer> cache = new IntLruCache<Integer>(capacity, new CacheStatistics());
+        Assert.assertEquals(capacity, cache.getCapacity());
+        Assert.assertTrue(cache.getAllocatedSlots() <= capacity);
+        cache.put(Integer.MAX_VALUE, 1); // large keys do not allocate
+        cache.put(Integer.MAX_VALUE - 1000000, 2);
+        Assert.assertTrue(cache.getAllocatedSlots() <= capacity);
+        for (int i = 0; i < 100 * capacity; i++) {
+            cache.put(i * 7919, i);
+            Assert.assertTrue(cache.size() <= capacity);
+        }
+        Assert.assertEquals(capacity, cache.size());
+        Assert.assertEquals(capacity, cache.getAllocatedSlots());
+        for (int i = 100 * capacity - capacity; i < 100 * capacity; i++) {
+            Assert.assertEquals(Integer.valueOf(i), cache.get(i * 7919));
+        }
+        cache.clear();
+        Assert.assertTrue(cache.getAllocatedSlots() <= capacity);
+        Assert.assertEquals(1, new IntLruCache<Integer>(0, new CacheStatistics()).getCapacity());
+    }
+
+    /**
+     * Tests the cache against a reference LRU map with random operations, including negative and colliding keys.
+     */
+    @Test
+    public void testRandomOperations() {
+        final int capacity = 37;
+        Random random = new Random(42);
+        IntLruCache<Integer> cache = new IntLruCache<Integer>(capacity, new CacheStatistics());
+        Map<Integer, Integer> reference = new LinkedHashMap<Integer, Integer>(16, 0.75f, true);
+        for (int i = 0; i < 200000; i++) {
+            int key = (random.nextInt(200) - 100) * 64; // multiples of the table size collide
+            int op = random.nextInt(10);
+            if (op < 4) {
+                Assert.assertEquals(reference.get(key), cache.get(key));
+            } else if (op < 9) {
+                reference.put(key, i);
+                if (reference.size() > capacity) {
+                    reference.remove(reference.keySet().iterator().next());
+                }
+                cache.put(key, i);
+            } else {
+                reference.remove(key);
+                cache.remove(key);
+            }
+            Assert.assertEquals(reference.size(), cache.size());
+        }
+        List<Integer> expected = new ArrayList<Integer>(reference.keySet());
+        Collections.reverse(expected); // most recently used first
+        int[] ids = cache.ids();
+        Assert.assertEquals(expected.size(), ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            Assert.assertEquals(expected.get(i).intValue(), ids[i]);
+        }
+    }
+
+    /**
+     * Asserts the ids of <code>cache</code> in recency order.
+     * 
+     * @param cache the cache
+     * @param expected the expected ids, most recently used first
+     */
+    private static void assertIds(IntLruCache<?> cache, int... expected) {
+        Assert.assertArrayEquals(expected, cache.ids());
+    }
+
+}
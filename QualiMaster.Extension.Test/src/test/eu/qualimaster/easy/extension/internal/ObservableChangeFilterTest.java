@@ -0,0 +1,93 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.eu.qualimaster.easy.extension.internal;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import eu.qualimaster.easy.extension.ObservableMapping;
+import eu.qualimaster.easy.extension.internal.ObservableChangeFilter;
+import eu.qualimaster.observables.TimeBehavior;
+
+/**
+ * Tests {@link ObservableChangeFilter}.
+ */
+public class ObservableChangeFilterTest {
+
+    private static final String LATENCY = ObservableMapping.mapGeneralObservable(TimeBehavior.LATENCY.name());
+    private static final String THROUGHPUT = ObservableMapping.mapGeneralObservable(
+        TimeBehavior.THROUGHPUT_ITEMS.name());
+
+    /**
+     * Removes all thresholds.
+     */
+    @After
+    public void tearDown() {
+        ObservableChangeFilter.clear();
+    }
+
+    /**
+     * Tests the edges of an absolute epsilon.
+     */
+    @Test
+    public void testAbsoluteEpsilon() {
+        ObservableChangeFilter.setAbsoluteEpsilon(TimeBehavior.LATENCY, 1.0);
+        Assert.assertFalse(ObservableChangeFilter.isSignificantChange(LATENCY, 100, 100));
+        Assert.assertFalse(ObservableChangeFilter.isSignificantChange(LATENCY, 100, 101)); // limit is inclusive
+        Assert.assertFalse(ObservableChangeFilter.isSignificantChange(LATENCY, 100, 99));
+        Assert.assertTrue(ObservableChangeFilter.isSignificantChange(LATENCY, 100, 101.01));
+        Assert.assertTrue(ObservableChangeFilter.isSignificantChange(LATENCY, 100, 98.99));
+        Assert.assertTrue(ObservableChangeFilter.isSignificantChange(THROUGHPUT, 100, 100.5)); // no threshold
+        ObservableChangeFilter.removeEpsilon(TimeBehavior.LATENCY);
+        Assert.assertTrue(ObservableChangeFilter.isSignificantChange(LATENCY, 100, 100.5));
+    }
+
+    /**
+     * Tests the edges of a relative epsilon.
+     */
+    @Test
+    public void testRelativeEpsilon() {
+        ObservableChangeFilter.setRelativeEpsilon(TimeBehavior.LATENCY, 0.1);
+        Assert.assertFalse(ObservableChangeFilter.isSignificantChange(LATENCY, 100, 110));
+        Assert.assertFalse(ObservableChangeFilter.isSignificantChange(LATENCY, -100, -90));
+        Assert.assertTrue(ObservableChangeFilter.isSignificantChange(LATENCY, 100, 110.01));
+        Assert.assertTrue(ObservableChangeFilter.isSignificantChange(LATENCY, 100, 89.99));
+        Assert.assertFalse(ObservableChangeFilter.isSignificantChange(LATENCY, 0, 0));
+        Assert.assertTrue(ObservableChangeFilter.isSignificantChange(LATENCY, 0, 0.001)); // no tolerance at 0
+    }
+
+    /**
+     * Tests that suppressed changes accumulate as they are compared against the value held by the variable rather 
+     * than against the last observation.
+     */
+    @Test
+    public void testHysteresis() {
+        ObservableChangeFilter.setAbsoluteEpsilon(TimeBehavior.LATENCY, 1.0);
+        double[] observations = {100.4, 100.8, 101.2, 101.6, 102.0, 102.4};
+        boolean[] expected = {false, false, true, false, false, true};
+        double held = 100;
+        for (int o = 0; o < observations.length; o++) {
+            boolean significant = ObservableChangeFilter.isSignificantChange(LATENCY, held, observations[o]);
+            Assert.assertEquals("observation " + o, expected[o], significant);
+            if (significant) {
+                held = observations[o];
+            }
+        }
+        Assert.assertEquals(102.4, held, 0.0001);
+    }
+
+}
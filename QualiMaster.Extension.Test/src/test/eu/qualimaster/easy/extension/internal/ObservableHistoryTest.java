@@ -0,0 +1,82 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.eu.qualimaster.easy.extension.internal;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import eu.qualimaster.easy.extension.internal.BindValuesInstantiator;
+import eu.qualimaster.easy.extension.internal.ObservableHistory;
+import eu.qualimaster.easy.extension.internal.ObservableHistoryHelper;
+
+/**
+ * Tests recording bound values in the history and querying them via {@link ObservableHistoryHelper}.
+ */
+public class ObservableHistoryTest extends AbstractBindingTest {
+
+    private static final String KEY = "Pipeline:SwitchPip:LATENCY";
+    
+    /**
+     * Enables the history.
+     */
+    @Before
+    public void enableHistory() {
+        ObservableHistory.setCapacity(120);
+    }
+
+    /**
+     * Disables the history.
+     */
+    @After
+    public void disableHistory() {
+        ObservableHistory.setCapacity(0);
+    }
+
+    /**
+     * Tests that bound numeric values are recorded in the history.
+     */
+    @Test
+    public void testHistory() {
+        BindValuesInstantiator.bind(getConfiguration(), getSystemState());
+        Assert.assertEquals(1, ObservableHistoryHelper.historyCount(KEY, 60000));
+        Assert.assertEquals(140.0, ObservableHistoryHelper.historyMax(KEY, 60000), 0.001);
+    }
+
+    /**
+     * Tests that binding the same snapshot again does not record its values again.
+     */
+    @Test
+    public void testOncePerSnapshot() {
+        BindValuesInstantiator.bind(getConfiguration(), getSystemState());
+        BindValuesInstantiator.bind(getConfiguration(), getSystemState());
+        Assert.assertEquals(1, ObservableHistoryHelper.historyCount(KEY, 60000));
+    }
+
+    /**
+     * Tests that nothing is recorded if the history is disabled and that querying unknown keys does not fail.
+     */
+    @Test
+    public void testDisabled() {
+        ObservableHistory.setCapacity(0);
+        BindValuesInstantiator.bind(getConfiguration(), getSystemState());
+        Assert.assertEquals(0, ObservableHistoryHelper.historyCount(KEY, 60000));
+        Assert.assertTrue(Double.isNaN(ObservableHistoryHelper.historyMean("Pipeline:unknown:LATENCY", 60000)));
+        Assert.assertEquals(0, ObservableHistory.getAllocatedMemory());
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.eu.qualimaster.easy.extension.internal;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import eu.qualimaster.easy.extension.internal.ObservableSmoothing;
+import eu.qualimaster.easy.extension.internal.ObservableSmoothing.Family;
+import eu.qualimaster.easy.extension.internal.ObservableSmoothing.Strategy;
+
+/**
+ * Tests {@link ObservableSmoothing}.
+ */
+public class ObservableSmoothingTest {
+
+    private static final String PIPELINE_KEY = "Pipeline:SwitchPip:LATENCY";
+    private static final String MACHINE_KEY = "Machine:host-10.ssecluster.local:LOAD";
+    private static final double[] VALUES = {10, 20, 30, 40};
+    
+    /**
+     * Disables smoothing.
+     */
+    @After
+    public void tearDown() {
+        ObservableSmoothing.clear();
+    }
+
+    /**
+     * Asserts smoothed values.
+     * 
+     * @param expected the expected values
+     * @param actual the actual values
+     */
+    private static void assertValues(double[] expected, double[] actual) {
+        Assert.assertEquals(expected.length, actual.length);
+        for (int v = 0; v < expected.length; v++) {
+            Assert.assertEquals("value " + v, expected[v], actual[v], 0.0001);
+        }
+    }
+    
+    /**
+     * Tests the exponentially weighted moving average.
+     */
+    @Test
+    public void testEwma() {
+        ObservableSmoothing.setSmoothing(Family.PIPELINE, Strategy.EWMA, 0.5);
+        assertValues(new double[] {10, 15, 22.5, 31.25}, ObservableSmoothing.smooth(PIPELINE_KEY, VALUES));
+        assertValues(VALUES, ObservableSmoothing.smooth(MACHINE_KEY, VALUES)); // other family
+        ObservableSmoothing.setSmoothing(Family.PIPELINE, Strategy.EWMA, 1);
+        assertValues(VALUES, ObservableSmoothing.smooth(PIPELINE_KEY, VALUES));
+    }
+
+    /**
+     * Tests the mean over a sliding window.
+     */
+    @Test
+    public void testSlidingMean() {
+        ObservableSmoothing.setSmoothing(Family.MACHINE, Strategy.SLIDING_MEAN, 3);
+        assertValues(new double[] {10, 15, 20, 30}, ObservableSmoothing.smooth(MACHINE_KEY, VALUES));
+        ObservableSmoothing.setSmoothing(Family.MACHINE, Strategy.SLIDING_MEAN, 1);
+        assertValues(VALUES, ObservableSmoothing.smooth(MACHINE_KEY, VALUES));
+        ObservableSmoothing.setSmoothing(Family.MACHINE, Strategy.NONE, 0);
+        assertValues(VALUES, ObservableSmoothing.smooth(MACHINE_KEY, VALUES));
+    }
+
+    /**
+     * Tests rejecting parameters that do not fit to the strategy.
+     */
+    @Test
+    public void testIllegalParameters() {
+        double[] illegalWeights = {0, -0.5, 1.5};
+        for (int w = 0; w < illegalWeights.length; w++) {
+            try {
+                ObservableSmoothing.setSmoothing(Family.PIPELINE, Strategy.EWMA, illegalWeights[w]);
+                Assert.fail("weight " + illegalWeights[w] + " shall be rejected");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+        try {
+            ObservableSmoothing.setSmoothing(Family.PIPELINE, Strategy.SLIDING_MEAN, 0);
+            Assert.fail("window size 0 shall be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertValues(VALUES, ObservableSmoothing.smooth(PIPELINE_KEY, VALUES));
+    }
+
+}
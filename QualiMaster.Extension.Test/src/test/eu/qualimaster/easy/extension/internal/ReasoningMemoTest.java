@@ -0,0 +1,132 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.eu.qualimaster.easy.extension.internal;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import eu.qualimaster.easy.extension.internal.BindValuesInstantiator;
+import eu.qualimaster.easy.extension.internal.ReasoningMemo;
+import net.ssehub.easy.varModel.confModel.Configuration;
+
+/**
+ * Tests {@link ReasoningMemo} and the binding digest used by it.
+ */
+public class ReasoningMemoTest extends AbstractBindingTest {
+
+    /**
+     * Tests that binding unchanged values does not change the digest.
+     */
+    @Test
+    public void testDigest() {
+        Configuration config = getConfiguration();
+        BindValuesInstantiator.bind(config, getSystemState());
+        long digest = BindValuesInstantiator.getBindingDigest(config);
+        BindValuesInstantiator.bind(config, getSystemState()); // same values, no change
+        Assert.assertEquals(digest, BindValuesInstantiator.getBindingDigest(config));
+    }
+
+    /**
+     * Tests that querying the digest does not create binding information and that nothing is memorized without 
+     * digest.
+     * 
+     * @throws Exception shall not occur
+     */
+    @Test
+    public void testNoDigest() throws Exception {
+        Configuration config = getConfiguration();
+        BindValuesInstantiator.release(config);
+        int count = BindValuesInstantiator.getRegisteredConfigurationCount();
+        Assert.assertEquals(BindValuesInstantiator.NO_DIGEST, BindValuesInstantiator.getBindingDigest(config));
+        Assert.assertEquals(count, BindValuesInstantiator.getRegisteredConfigurationCount());
+        ReasoningMemo.reason(config, new Result(config));
+        Assert.assertNull(ReasoningMemo.get(config, BindValuesInstantiator.NO_DIGEST));
+    }
+
+    /**
+     * Tests that results are memorized while values are bound and become unreachable when the binding information 
+     * is released, also if they refer to their configuration.
+     * 
+     * @throws Exception shall not occur
+     */
+    @Test
+    public void testReleaseResult() throws Exception {
+        Configuration config = getConfiguration();
+        BindValuesInstantiator.bind(config, getSystemState());
+        Object result = ReasoningMemo.reason(config, new Result(config));
+        Assert.assertSame(result, ReasoningMemo.reason(config, new Result(config)));
+        WeakReference<Object> ref = new WeakReference<Object>(result);
+        result = null;
+        BindValuesInstantiator.release(config);
+        for (int i = 0; null != ref.get() && i < 50; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertNull(ref.get());
+    }
+
+    /**
+     * Tests that a result is not memorized if a binding changes the configuration during reasoning.
+     * 
+     * @throws Exception shall not occur
+     */
+    @Test
+    public void testBindingDuringReasoning() throws Exception {
+        final Configuration config = getConfiguration();
+        BindValuesInstantiator.bind(config, getSystemState());
+        ReasoningMemo.reason(config, new Callable<Object>() {
+
+            @Override
+            public Object call() {
+                Map<String, Object> changed = new HashMap<String, Object>();
+                changed.put("Pipeline:SwitchPip:LATENCY", 150.0);
+                BindValuesInstantiator.bind(config, changed);
+                return new Object();
+            }
+
+        });
+        Assert.assertNull(ReasoningMemo.get(config, BindValuesInstantiator.getBindingDigest(config)));
+    }
+
+    /**
+     * A reasoning result referring to its configuration.
+     */
+    private static class Result implements Callable<Object> {
+
+        private Configuration config;
+
+        /**
+         * Creates a result.
+         * 
+         * @param config the configuration
+         */
+        private Result(Configuration config) {
+            this.config = config;
+        }
+
+        @Override
+        public Object call() {
+            return new Object[] {config};
+        }
+
+    }
+
+}
@@ -15,17 +15,35 @@
  */
 package eu.qualimaster.easy.extension.internal;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.lang.reflect.Field;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
+import eu.qualimaster.coordination.RepositoryConnector;
+import eu.qualimaster.coordination.RepositoryConnector.IPhase;
+import eu.qualimaster.coordination.RepositoryConnector.Models;
 import eu.qualimaster.coordination.events.ModelUpdatedEvent;
 import eu.qualimaster.events.EventHandler;
 import eu.qualimaster.events.EventManager;
+import eu.qualimaster.infrastructure.PipelineLifecycleEvent;
+import eu.qualimaster.monitoring.events.FrozenSystemState;
 import net.ssehub.easy.instantiation.core.model.vilTypes.IVilType;
 import net.ssehub.easy.instantiation.core.model.vilTypes.Instantiator;
+import net.ssehub.easy.instantiation.core.model.vilTypes.Invisible;
 import net.ssehub.easy.instantiation.core.model.vilTypes.configuration.Configuration;
-import net.ssehub.easy.instantiation.rt.core.model.confModel.AdaptiveConfiguration;
 
 /**
  * RtVil Instantiator to bind a runtime mapping to {@link Configuration}.
@@ -35,8 +53,19 @@ import net.ssehub.easy.instantiation.rt.core.model.confModel.AdaptiveConfigurati
 @Instantiator("storeValueBinding")
 public class BindValuesInstantiator implements IVilType {
     
-    private static Map<net.ssehub.easy.varModel.confModel.Configuration,
-        AdaptiveConfiguration<IvmlElementIdentifier.ObservableTuple>> configMapping = new HashMap<>();
+    public static final long NO_DIGEST = Long.MIN_VALUE;
+    
+    private static Map<net.ssehub.easy.varModel.confModel.Configuration, ConfigurationBinder> configMapping 
+        = new ConcurrentHashMap<>();
+    private static final ExecutorService REBUILDER 
+        = Executors.newSingleThreadExecutor(new DaemonThreadFactory("QM binding rebuild"));
+    private static Map<net.ssehub.easy.varModel.confModel.Configuration, BindingQueue> queues 
+        = new ConcurrentHashMap<>();
+    private static volatile boolean deltaBinding = false;
+    private static volatile boolean stagedBinding = false;
+    private static volatile ExecutorService bindingPool;
+    private static volatile int asyncQueueCapacity = 10;
+    private static final Field VIL_MAP_FIELD = obtainVilMapField();
 
     /**
      * Handles updates of the coordination model.
@@ -54,15 +83,269 @@ public class BindValuesInstantiator implements IVilType {
 
         @Override
         protected void handle(ModelUpdatedEvent event) {
-            synchronized (configMapping) {
-                configMapping.clear(); // clean up and force re-build
+            // as in the previous clean-up on any update: CHANGING may already replace models, CHANGED completes 
+            // the update, i.e., rebuilding current binders or replacing stale ones is required in both cases
+            REBUILDER.execute(new RebuildTask()); // existing binders continue serving in the meantime
+        }
+        
+    }
+    
+    /**
+     * Handles pipeline lifecycle events to invalidate cached pipeline information when a pipeline is started.
+     */
+    private static class PipelineLifecycleEventHandler extends EventHandler<PipelineLifecycleEvent> {
+
+        /**
+         * Creates a handler instance.
+         */
+        protected PipelineLifecycleEventHandler() {
+            super(PipelineLifecycleEvent.class);
+        }
+
+        @Override
+        protected void handle(PipelineLifecycleEvent event) {
+            PipelineLifecycleEvent.Status status = event.getStatus();
+            if (PipelineLifecycleEvent.Status.STARTING == status || PipelineLifecycleEvent.Status.STARTED == status) {
+                invalidatePipeline(event.getPipeline());
+            }
+        }
+        
+    }
+
+    /**
+     * Rebuilds the registered binders after a model update. Binders of configurations that are not in use anymore
+     * are unregistered and replaced by a prepared binder for the current configuration of their phase so that the
+     * first binding after the update does not need to build the resolution structures.
+     */
+    private static class RebuildTask implements Runnable {
+
+        @Override
+        public void run() {
+            for (Map.Entry<net.ssehub.easy.varModel.confModel.Configuration, ConfigurationBinder> entry 
+                : configMapping.entrySet()) {
+                ConfigurationBinder binder = entry.getValue();
+                try {
+                    if (binder.isCurrent()) {
+                        binder.rebuild();
+                    } else {
+                        release(entry.getKey(), binder);
+                        prebuild(binder.getPhase());
+                    }
+                } catch (RuntimeException e) {
+                    Bundle.getLogger(BindValuesInstantiator.class).error("While rebuilding value binding: " 
+                        + e.getMessage() + ". Discarding binder.");
+                    release(entry.getKey(), binder); // re-created on demand
+                }
+            }
+        }
+        
+        /**
+         * Registers and prepares a binder for the current configuration of <code>phase</code> if not already done.
+         * 
+         * @param phase the phase, ignored if <b>null</b>
+         */
+        private void prebuild(IPhase phase) {
+            Models models = null == phase ? null : RepositoryConnector.getModels(phase);
+            net.ssehub.easy.varModel.confModel.Configuration config = null == models 
+                ? null : models.getConfiguration();
+            if (null != config && !configMapping.containsKey(config)) {
+                IPhase before = RepositoryConnector.getPhase(Thread.currentThread());
+                RepositoryConnector.associatePhase(Thread.currentThread(), phase); // for pipeline information
+                try {
+                    obtainBinder(config, phase).warmUp(false);
+                } finally {
+                    RepositoryConnector.associatePhase(Thread.currentThread(), before);
+                }
             }
         }
         
     }
 
+    /**
+     * Creates daemon threads for rebuilding binders or binding in parallel.
+     */
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+        private String name;
+        
+        /**
+         * Creates a thread factory.
+         * 
+         * @param name the name of the threads
+         */
+        private DaemonThreadFactory(String name) {
+            this.name = name;
+        }
+        
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread result = new Thread(runnable, name);
+            result.setDaemon(true);
+            return result;
+        }
+        
+    }
+
     static {
         EventManager.register(new ModelUpdateEventHandler());
+        EventManager.register(new PipelineLifecycleEventHandler());
+    }
+    
+    /**
+     * Enables or disables the delta binding mode. In delta binding mode, only keys with values that changed since
+     * the last binding to the same configuration are assigned.
+     * 
+     * @param delta <code>true</code> for delta binding, <code>false</code> for binding all values (default)
+     */
+    @Invisible
+    public static void setDeltaBinding(boolean delta) {
+        deltaBinding = delta;
+    }
+    
+    /**
+     * Returns whether the delta binding mode is enabled.
+     * 
+     * @return <code>true</code> for delta binding, <code>false</code> for binding all values
+     */
+    @Invisible
+    public static boolean isDeltaBinding() {
+        return deltaBinding;
+    }
+    
+    /**
+     * Enables or disables the staged binding mode. In staged binding mode, all values of a binding are resolved and 
+     * converted first and then published at once, i.e., readers using 
+     * {@link #readConsistently(net.ssehub.easy.varModel.confModel.Configuration, Callable)} are blocked only 
+     * while the converted values are assigned.
+     * 
+     * @param staged <code>true</code> for staged binding, <code>false</code> for binding values while resolving 
+     *     them (default)
+     */
+    @Invisible
+    public static void setStagedBinding(boolean staged) {
+        stagedBinding = staged;
+    }
+    
+    /**
+     * Returns whether the staged binding mode is enabled.
+     * 
+     * @return <code>true</code> for staged binding, <code>false</code> else
+     */
+    @Invisible
+    public static boolean isStagedBinding() {
+        return stagedBinding;
+    }
+    
+    /**
+     * Enables or disables parallel binding. If enabled, the values of different pipelines are resolved and 
+     * converted in parallel by the given number of worker threads. The converted values are assigned and 
+     * propagated afterwards on the binding thread, followed by the values that do not belong to a pipeline. 
+     * Parallel binding is not applied if {@link BindingPriorities} are enabled.
+     * 
+     * @param workers the number of worker threads, parallel binding is disabled (default) if less than 2
+     */
+    @Invisible
+    public static synchronized void setParallelBinding(int workers) {
+        ExecutorService old = bindingPool;
+        if (workers > 1) {
+            bindingPool = Executors.newFixedThreadPool(workers, new DaemonThreadFactory("QM binding worker"));
+        } else {
+            bindingPool = null;
+        }
+        if (null != old) {
+            old.shutdown(); // running bindings still complete
+        }
+    }
+    
+    /**
+     * Returns whether parallel binding is enabled.
+     * 
+     * @return <code>true</code> for parallel binding, <code>false</code> else
+     */
+    @Invisible
+    public static boolean isParallelBinding() {
+        return null != bindingPool;
+    }
+    
+    /**
+     * Invalidates the cached information of all binders related to <code>pipeline</code>, in particular the 
+     * recorded resolution failures. Called automatically when a pipeline is being started.
+     * 
+     * @param pipeline the name of the pipeline
+     */
+    @Invisible
+    public static void invalidatePipeline(String pipeline) {
+        for (ConfigurationBinder binder : configMapping.values()) {
+            binder.invalidatePipeline(pipeline);
+        }
+    }
+    
+    /**
+     * Executes <code>reader</code>, e.g., an adaptation strategy or reasoning, on a consistent state of 
+     * <code>config</code>, i.e., no binding to <code>config</code> is published meanwhile. This is achieved by 
+     * locking rather than by a snapshot, i.e., <code>reader</code> works on the live configuration, waits for a 
+     * binding being published and delays publishing further bindings until it completes. Only readers executed 
+     * this way are guaranteed to see a consistent state. <code>reader</code> must not bind values to 
+     * <code>config</code>, such bindings would dead-lock and are rejected by an {@link IllegalStateException}.
+     * 
+     * @param <T> the result type
+     * @param config the configuration to read
+     * @param reader the reader to execute
+     * @return the result of <code>reader</code>
+     * @throws Exception any exception thrown by <code>reader</code>
+     */
+    @Invisible
+    public static <T> T readConsistently(net.ssehub.easy.varModel.confModel.Configuration config, 
+        Callable<T> reader) throws Exception {
+        ConfigurationBinder binder = obtainBinder(config);
+        while (!binder.lockReading()) { // retired meanwhile, read via its replacement
+            binder = obtainBinder(config);
+        }
+        try {
+            return reader.call();
+        } finally {
+            binder.unlockReading();
+        }
+    }
+    
+    /**
+     * Returns the version of the bound state of <code>config</code>, i.e., the number of bindings published to 
+     * <code>config</code> so far. Allows readers to detect whether new values were bound.
+     * 
+     * @param config the configuration
+     * @return the version
+     */
+    @Invisible
+    public static long getBindingVersion(net.ssehub.easy.varModel.confModel.Configuration config) {
+        return obtainBinder(config).getVersion();
+    }
+    
+    /**
+     * Returns the digest of the bound state of <code>config</code>. In contrast to the 
+     * {@link #getBindingVersion(net.ssehub.easy.varModel.confModel.Configuration) version}, the digest remains the
+     * same if bindings do not change any value, e.g., to skip reasoning via {@link ReasoningMemo}. Does not create 
+     * binding information for <code>config</code>.
+     * 
+     * @param config the configuration
+     * @return the digest, {@link #NO_DIGEST} if no values were bound to <code>config</code> or its binding 
+     *     information was released
+     */
+    @Invisible
+    public static long getBindingDigest(net.ssehub.easy.varModel.confModel.Configuration config) {
+        ConfigurationBinder binder = configMapping.get(config);
+        return null == binder ? NO_DIGEST : binder.getDigest();
+    }
+    
+    /**
+     * Defines the maximum number of asynchronous binding submissions per configuration that are not yet applied. 
+     * Further submissions block until the pending ones are applied. Affects only binding queues created after 
+     * calling this method.
+     * 
+     * @param capacity the capacity (at least 1)
+     */
+    @Invisible
+    public static void setAsyncQueueCapacity(int capacity) {
+        asyncQueueCapacity = Math.max(1, capacity);
     }
     
     /**
@@ -71,19 +354,279 @@ public class BindValuesInstantiator implements IVilType {
      * @param bindings The new values to set in form of <code>&lt;id for a (nested) variable, value&gt;</code>
      */
     public static void storeValueBinding(Configuration configuration, Map<String, Object> bindings) {
-        synchronized (configMapping) {
-            AdaptiveConfiguration<IvmlElementIdentifier.ObservableTuple> aConfig =
-                    configMapping.get(configuration.getConfiguration());
-            if (null == aConfig) {
-                net.ssehub.easy.varModel.confModel.Configuration config = configuration.getConfiguration();
-                aConfig = new AdaptiveConfiguration<>(config, new IvmlElementIdentifier(config));
-                configMapping.put(configuration.getConfiguration(), aConfig);
-            }
+        bind(configuration.getConfiguration(), bindings);
+    }
 
-            aConfig.addValues(bindings);
+    /**
+     * Binds the values of the given system state to the configuration. The mapping of <code>state</code> is bound
+     * directly, i.e., without intermediary copies, so <code>state</code> must not be modified during the binding.
+     * Java API only as {@link FrozenSystemState} is not a VIL type.
+     * 
+     * @param configuration The configuration, which shall receive the new values from the system state
+     * @param state The system state to bind
+     */
+    @Invisible
+    public static void storeValueBinding(Configuration configuration, FrozenSystemState state) {
+        bind(configuration.getConfiguration(), state);
+    }
+    
+    /**
+     * Binds the values of the given system state to the configuration. The mapping of <code>state</code> is bound
+     * directly, so <code>state</code> must not be modified during the binding.
+     * 
+     * @param config The configuration, which shall receive the new values from the system state
+     * @param state The system state to bind
+     * @return the binding result
+     * @see #bind(net.ssehub.easy.varModel.confModel.Configuration, Map)
+     */
+    @Invisible
+    public static BindingResult bind(net.ssehub.easy.varModel.confModel.Configuration config, 
+        FrozenSystemState state) {
+        return bind(config, state.getMapping());
+    }
 
+    /**
+     * Binds the values of the given mapping to the configuration. Bindings to different configurations may run in
+     * parallel, bindings to the same configuration are serialized by the respective {@link ConfigurationBinder}.
+     * Bindings are recorded in the {@link BindingJournal} and the {@link ObservableHistory} if enabled.
+     * 
+     * @param config The configuration, which shall receive the new values from the mapping
+     * @param bindings The new values to set in form of <code>&lt;id for a (nested) variable, value&gt;</code>
+     * @return the binding result
+     * @throws IllegalStateException if called while the calling thread 
+     *     {@link #readConsistently(net.ssehub.easy.varModel.confModel.Configuration, Callable) reads} 
+     *     <code>config</code>
+     */
+    @Invisible
+    public static BindingResult bind(net.ssehub.easy.varModel.confModel.Configuration config, 
+        Map<String, ?> bindings) {
+        long timestamp = System.currentTimeMillis();
+        BindingResult result = null;
+        while (null == result) { // binder may be retired meanwhile, then bind via its replacement
             // Will change the configuration as a side effect
-            aConfig.takeOverValues();
+            result = obtainBinder(config).bind(bindings, deltaBinding, stagedBinding, bindingPool, timestamp);
+        }
+        return result;
+    }
+
+    /**
+     * Binds the last values recorded in the {@link BindingJournal} to <code>config</code>, e.g., to a fresh 
+     * configuration after a restart of the adaptation layer. The replayed values are neither journaled again nor 
+     * recorded in the {@link ObservableHistory}.
+     * 
+     * @param config The configuration, which shall receive the recorded values
+     * @return the binding result, without keys if the journal is disabled or empty
+     */
+    @Invisible
+    public static BindingResult replayJournal(net.ssehub.easy.varModel.confModel.Configuration config) {
+        Map<String, Object> values = BindingJournal.readLastValues();
+        BindingResult result = null;
+        while (null == result) {
+            result = obtainBinder(config).bind(values, false, stagedBinding, bindingPool, -1);
+        }
+        return result;
+    }
+
+    /**
+     * Binds the values of the given mapping asynchronously to the configuration. Pending bindings for the same 
+     * configuration are merged, i.e., only the latest value per key is applied.
+     * 
+     * @param config The configuration, which shall receive the new values from the mapping
+     * @param bindings The new values to set in form of <code>&lt;id for a (nested) variable, value&gt;</code>
+     * @return the completion handle
+     */
+    @Invisible
+    public static Future<BindingResult> bindAsync(net.ssehub.easy.varModel.confModel.Configuration config, 
+        Map<String, ?> bindings) {
+        BindingQueue queue = queues.get(config);
+        if (null == queue) {
+            queue = new BindingQueue(config, asyncQueueCapacity);
+            BindingQueue existing = queues.putIfAbsent(config, queue);
+            if (null != existing) {
+                queue = existing;
+            }
+        }
+        return queue.submit(bindings);
+    }
+
+    /**
+     * Binds the values of the given mapping asynchronously to the configuration.
+     * 
+     * @param configuration The configuration, which shall receive the new values from the mapping
+     * @param bindings The new values to set in form of <code>&lt;id for a (nested) variable, value&gt;</code>
+     * @see #bindAsync(net.ssehub.easy.varModel.confModel.Configuration, Map)
+     */
+    public static void storeValueBindingAsync(Configuration configuration, 
+        net.ssehub.easy.instantiation.core.model.vilTypes.Map<String, Object> bindings) {
+        Map<String, Object> map = toJavaMap(bindings);
+        if (null != map) {
+            bindAsync(configuration.getConfiguration(), map);
+        }
+    }
+
+    /**
+     * Warms up the value binding for the configuration of <code>models</code>, i.e., builds the resolution 
+     * structures for all pipelines and known observables in advance so that already the first binding 
+     * (monitoring cycle) runs in steady state. Intended to be called right after creating <code>models</code>.
+     * 
+     * @param models the models to warm up for
+     * @param dryRun whether the current values shall also be converted (without changing the configuration)
+     * @return the number of resolved observable IDs
+     */
+    @Invisible
+    public static int warmUp(Models models, boolean dryRun) {
+        int result = 0;
+        net.ssehub.easy.varModel.confModel.Configuration config = models.getConfiguration();
+        if (null != config) {
+            IPhase phase = models.getPhase();
+            IPhase before = RepositoryConnector.getPhase(Thread.currentThread());
+            RepositoryConnector.associatePhase(Thread.currentThread(), phase); // for pipeline information
+            try {
+                result = obtainBinder(config, phase).warmUp(dryRun);
+            } finally {
+                RepositoryConnector.associatePhase(Thread.currentThread(), before);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes a snapshot of all runtime-bound variable values of <code>config</code>, including derived slots, e.g., 
+     * as checkpoint for a fast restart or for post-mortem analysis.
+     * 
+     * @param config the configuration
+     * @param file the file to write the snapshot to
+     * @return the number of written variables
+     * @throws IOException if writing fails
+     * @see #restoreSnapshot(net.ssehub.easy.varModel.confModel.Configuration, File)
+     */
+    @Invisible
+    public static int writeSnapshot(net.ssehub.easy.varModel.confModel.Configuration config, File file) 
+        throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        int result;
+        try {
+            result = obtainBinder(config).writeSnapshot(out);
+        } finally {
+            out.close();
+        }
+        return result;
+    }
+
+    /**
+     * Restores a snapshot written by {@link #writeSnapshot(net.ssehub.easy.varModel.confModel.Configuration, File)}
+     * into <code>config</code>, e.g., a fresh configuration after a restart. Values are assigned directly to the 
+     * variables denoted in the snapshot, i.e., without resolving observable IDs.
+     * 
+     * @param config the configuration
+     * @param file the snapshot file
+     * @return the number of restored variables
+     * @throws IOException if reading fails
+     */
+    @Invisible
+    public static int restoreSnapshot(net.ssehub.easy.varModel.confModel.Configuration config, File file) 
+        throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        int result = -1;
+        try {
+            while (result < 0) { // binder may be retired meanwhile, then restore via its replacement
+                result = obtainBinder(config).restoreSnapshot(in);
+            }
+        } finally {
+            in.close();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the binder for <code>config</code>, creates and registers it if required.
+     * 
+     * @param config the configuration
+     * @return the binder
+     */
+    private static ConfigurationBinder obtainBinder(net.ssehub.easy.varModel.confModel.Configuration config) {
+        return obtainBinder(config, RepositoryConnector.getPhase(Thread.currentThread()));
+    }
+
+    /**
+     * Returns the binder for <code>config</code>, creates and registers it if required.
+     * 
+     * @param config the configuration
+     * @param phase the phase <code>config</code> belongs to, may be <b>null</b> if unknown
+     * @return the binder
+     */
+    private static ConfigurationBinder obtainBinder(net.ssehub.easy.varModel.confModel.Configuration config, 
+        IPhase phase) {
+        ConfigurationBinder binder = configMapping.get(config);
+        if (null == binder) {
+            binder = new ConfigurationBinder(config, phase);
+            ConfigurationBinder existing = configMapping.putIfAbsent(config, binder);
+            if (null != existing) {
+                binder = existing;
+            } else {
+                releaseStale(config);
+            }
+        }
+        return binder;
+    }
+    
+    /**
+     * Releases the binding information for <code>config</code>, i.e., its binder and asynchronous binding queue, 
+     * so that <code>config</code> and the related resolution structures can be garbage collected. Shall be called 
+     * for configurations that are discarded without a model update, e.g., testing or debugging configurations. 
+     * Further bindings to <code>config</code> re-create the binding information.
+     * 
+     * @param config the configuration
+     */
+    @Invisible
+    public static void release(net.ssehub.easy.varModel.confModel.Configuration config) {
+        ConfigurationBinder binder = configMapping.get(config);
+        if (null != binder) {
+            release(config, binder);
+        } else {
+            queues.remove(config);
+        }
+    }
+    
+    /**
+     * Returns the number of configurations binding information is currently held for.
+     * 
+     * @return the number of configurations
+     */
+    @Invisible
+    public static int getRegisteredConfigurationCount() {
+        return configMapping.size();
+    }
+    
+    /**
+     * Releases <code>binder</code> for <code>config</code> if still registered. The binder is 
+     * {@link ConfigurationBinder#retire() retired} before unregistering it, i.e., a binder created afterwards for 
+     * <code>config</code> does not bind concurrently to a running binding of <code>binder</code>.
+     * 
+     * @param config the configuration
+     * @param binder the binder
+     */
+    private static void release(net.ssehub.easy.varModel.confModel.Configuration config, 
+        ConfigurationBinder binder) {
+        binder.retire();
+        if (configMapping.remove(config, binder)) {
+            queues.remove(config);
+            ReasoningMemo.remove(config); // results may refer to config
+        }
+    }
+    
+    /**
+     * Releases the binders of configurations that are not used anymore by the models of the phase the binder was 
+     * created for, e.g., configurations that were replaced.
+     * 
+     * @param except the configuration to keep in any case
+     */
+    private static void releaseStale(net.ssehub.easy.varModel.confModel.Configuration except) {
+        for (Map.Entry<net.ssehub.easy.varModel.confModel.Configuration, ConfigurationBinder> entry 
+            : configMapping.entrySet()) {
+            if (entry.getKey() != except && !entry.getValue().isCurrent()) {
+                release(entry.getKey(), entry.getValue());
+            }
         }
     }
 
@@ -94,17 +637,49 @@ public class BindValuesInstantiator implements IVilType {
      */
     public static void storeValueBinding(Configuration configuration,
         net.ssehub.easy.instantiation.core.model.vilTypes.Map<String, Object> bindings) {
+        Map<String, Object> map = toJavaMap(bindings);
+        if (null != map) {
+            storeValueBinding(configuration, map);
+        }
+    }
+
+    /**
+     * Returns the Java-Map underlying a Vil-Map.
+     * 
+     * @param bindings the Vil-Map
+     * @return the Java-Map, <b>null</b> if it cannot be accessed
+     */
+    private static Map<String, Object> toJavaMap(
+        net.ssehub.easy.instantiation.core.model.vilTypes.Map<String, Object> bindings) {
+        Map<String, Object> result = null;
+        if (null != VIL_MAP_FIELD) {
+            try {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> map = (Map<String, Object>) VIL_MAP_FIELD.get(bindings);
+                result = map;
+            } catch (IllegalAccessException e) {
+                Bundle.getLogger(BindValuesInstantiator.class).exception(e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Obtains the field holding the Java-Map underlying a Vil-Map.
+     * 
+     * @return the field, <b>null</b> if it cannot be accessed
+     */
+    private static Field obtainVilMapField() {
+        Field result = null;
         Class<?> clazz = net.ssehub.easy.instantiation.core.model.vilTypes.Map.class;
         try {
-            Field nestedMap = clazz.getDeclaredField("map");
-            nestedMap.setAccessible(true);
-            @SuppressWarnings("unchecked")
-            Map<String, Object> map = (Map<String, Object>) nestedMap.get(bindings);
-            storeValueBinding(configuration, map);
+            result = clazz.getDeclaredField("map");
+            result.setAccessible(true);
         } catch (ReflectiveOperationException e) {
             Bundle.getLogger(BindValuesInstantiator.class).exception(e);
         } catch (SecurityException e) {
             Bundle.getLogger(BindValuesInstantiator.class).exception(e);
         }
+        return result;
     }
 }
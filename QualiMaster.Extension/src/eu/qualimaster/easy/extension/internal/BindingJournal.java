@@ -0,0 +1,645 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.qualimaster.easy.extension.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional append-only journal of the values applied by {@link BindValuesInstantiator} in a compact binary format. 
+ * After a restart, the last known values can be {@link #readLastValues() read} and bound into a fresh configuration 
+ * instead of waiting for several monitoring cycles. Bindings are recorded by the {@link ConfigurationBinder} and 
+ * written asynchronously in batches by a writer thread, i.e., binding does not wait for the file system. The writer 
+ * terminates when idle. If the writer falls behind, further bindings are dropped. A snapshot bound to multiple 
+ * configurations is journaled once with the timestamp of its first binding. The journal is split into segments of 
+ * limited size. If the number of segments exceeds the configured maximum, the closed segments are compacted into a 
+ * single segment holding only the last value per key, i.e., the journal size and the replay time remain bounded.
+ * 
+ * Format of a segment: magic number, version byte, then a sequence of records. A {@link #KEY} record 
+ * (id, key) defines a segment-local id for a key upon its first use in the segment. A {@link #BINDING} record 
+ * (timestamp, count, count &times; (id, type, value)) describes one binding. A truncated final record, e.g., due to 
+ * a crash, is ignored when reading.
+ */
+public class BindingJournal {
+
+    private static final int MAGIC = 0x514D424A; // QMBJ
+    private static final byte VERSION = 1;
+    private static final byte KEY = 1;
+    private static final byte BINDING = 2;
+    private static final byte TYPE_DOUBLE = 1;
+    private static final byte TYPE_INTEGER = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_BOOLEAN = 4;
+    private static final byte TYPE_STRING = 5;
+    private static final String PREFIX = "bindings-";
+    private static final String SUFFIX = ".qmj";
+    
+    private static final int MAX_PENDING = 1024;
+    private static final long IDLE_TIMEOUT = 5000;
+    private static final Object IO_LOCK = new Object(); // guards the files, the class guards the pending records
+    
+    private static volatile File directory;
+    private static long segmentSize = 4 * 1024 * 1024;
+    private static int maxSegments = 4;
+    private static DataOutputStream out;
+    private static Map<String, Integer> defined = new HashMap<String, Integer>(); // segment-local ids
+    private static List<Record> pending = new ArrayList<Record>();
+    private static int writing;
+    private static Thread writer;
+    private static WeakReference<Object> lastSnapshot = new WeakReference<Object>(null);
+    private static long lastTimestamp;
+    private static Set<String> lastKeys = new HashSet<String>();
+    private static final AtomicLong DROPPED = new AtomicLong();
+    
+    /**
+     * A binding to be written.
+     */
+    private static class Record {
+        
+        private long timestamp;
+        private String[] keys;
+        private Object[] values;
+        private int count;
+
+        /**
+         * Creates a record.
+         * 
+         * @param timestamp the timestamp of the binding in milliseconds
+         * @param keys the observable keys
+         * @param values the values, in the sequence of <code>keys</code>
+         * @param count the number of values
+         */
+        private Record(long timestamp, String[] keys, Object[] values, int count) {
+            this.timestamp = timestamp;
+            this.keys = keys;
+            this.values = values;
+            this.count = count;
+        }
+        
+    }
+    
+    /**
+     * Writes the pending records in batches.
+     */
+    private static class Writer implements Runnable {
+
+        @Override
+        public void run() {
+            boolean running = true;
+            while (running) {
+                List<Record> batch = null;
+                synchronized (BindingJournal.class) {
+                    if (pending.isEmpty()) {
+                        try {
+                            BindingJournal.class.wait(IDLE_TIMEOUT);
+                        } catch (InterruptedException e) {
+                            // check below
+                        }
+                    }
+                    if (pending.isEmpty()) {
+                        writer = null;
+                        running = false;
+                    } else {
+                        batch = pending;
+                        writing = batch.size();
+                        pending = new ArrayList<Record>();
+                    }
+                }
+                if (null != batch) {
+                    try {
+                        write(batch);
+                    } catch (RuntimeException e) {
+                        Bundle.getLogger(BindingJournal.class).exception(e);
+                    }
+                    synchronized (BindingJournal.class) {
+                        writing = 0;
+                        BindingJournal.class.notifyAll(); // wake up flushing threads
+                    }
+                }
+            }
+        }
+        
+    }
+    
+    /**
+     * Enables or disables the journal. Writes the pending bindings and closes the current segment, if any. 
+     * Journaling continues after the last existing segment in <code>dir</code>.
+     * 
+     * @param dir the directory to store the segments in, <b>null</b> disables the journal (default)
+     */
+    public static void setDirectory(File dir) {
+        flush();
+        synchronized (IO_LOCK) {
+            closeSegment();
+            directory = dir;
+        }
+    }
+
+    /**
+     * Returns the directory the segments are stored in.
+     * 
+     * @return the directory, <b>null</b> if the journal is disabled
+     */
+    public static File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns whether the journal is enabled.
+     * 
+     * @return <code>true</code> if enabled, <code>false</code> else
+     */
+    public static boolean isEnabled() {
+        return null != directory;
+    }
+
+    /**
+     * Defines the size of a segment after which a new segment is started.
+     * 
+     * @param bytes the size in bytes
+     */
+    public static void setSegmentSize(long bytes) {
+        synchronized (IO_LOCK) {
+            segmentSize = Math.max(1, bytes);
+        }
+    }
+    
+    /**
+     * Defines the number of segments after which the closed segments are compacted.
+     * 
+     * @param segments the number of segments (at least 2)
+     */
+    public static void setMaxSegments(int segments) {
+        synchronized (IO_LOCK) {
+            maxSegments = Math.max(2, segments);
+        }
+    }
+
+    /**
+     * Returns the number of bindings that were not journaled as the writer fell behind.
+     * 
+     * @return the number of dropped bindings
+     */
+    public static long getDroppedCount() {
+        return DROPPED.get();
+    }
+
+    /**
+     * Appends the values applied by a binding to the journal if enabled. The values are written asynchronously. 
+     * Values of unsupported types are not recorded. Values of a snapshot that was journaled before, e.g., by the 
+     * binding to another configuration, are only recorded if their keys were not journaled for the snapshot, 
+     * and then with the original timestamp.
+     * 
+     * @param snapshot the snapshot the values were bound from, identified by reference
+     * @param timestamp the time in milliseconds <code>snapshot</code> was taken at
+     * @param keys the observable keys of the applied values
+     * @param values the applied values, in the sequence of <code>keys</code>
+     * @param count the number of applied values
+     */
+    static synchronized void record(Object snapshot, long timestamp, String[] keys, Object[] values, int count) {
+        if (null != directory) {
+            if (lastSnapshot.get() != snapshot) {
+                lastSnapshot = new WeakReference<Object>(snapshot);
+                lastTimestamp = timestamp;
+                lastKeys = new HashSet<String>();
+            }
+            String[] rKeys = new String[count];
+            Object[] rValues = new Object[count];
+            int rCount = 0;
+            for (int v = 0; v < count; v++) {
+                if (getType(values[v]) > 0 && lastKeys.add(keys[v])) {
+                    rKeys[rCount] = keys[v];
+                    rValues[rCount++] = values[v];
+                }
+            }
+            if (rCount > 0 && pending.size() + writing >= MAX_PENDING) {
+                DROPPED.incrementAndGet();
+            } else if (rCount > 0) {
+                pending.add(new Record(lastTimestamp, rKeys, rValues, rCount));
+                if (null == writer) {
+                    writer = new Thread(new Writer(), "QM binding journal");
+                    writer.setDaemon(true);
+                    writer.start();
+                }
+                BindingJournal.class.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Waits until the pending bindings are written.
+     */
+    public static synchronized void flush() {
+        boolean interrupted = false;
+        while (!pending.isEmpty() || writing > 0) {
+            try {
+                BindingJournal.class.wait();
+            } catch (InterruptedException e) {
+                interrupted = true; // the writer terminates anyway
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Writes a batch of records to the current segment. Flushes the segment once per batch and starts a new 
+     * segment if the segment size is exceeded. Failures are logged and do not affect the binding.
+     * 
+     * @param batch the records
+     */
+    private static void write(List<Record> batch) {
+        synchronized (IO_LOCK) {
+            if (null != directory) {
+                try {
+                    if (null == out) {
+                        open();
+                    }
+                    for (int r = 0; r < batch.size(); r++) {
+                        Record record = batch.get(r);
+                        write(out, record.timestamp, record.keys, record.values, record.count, defined);
+                    }
+                    out.flush(); // to the operating system, survives a restart of the adaptation layer
+                    if (out.size() >= segmentSize) {
+                        roll();
+                    }
+                } catch (IOException e) {
+                    Bundle.getLogger(BindingJournal.class).warn("Cannot write binding journal: " + e.getMessage());
+                    closeSegment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the last value per key from the journal, e.g., to bind it into a fresh configuration after a restart.
+     * Writes the pending bindings before.
+     * 
+     * @return the last values, empty if the journal is disabled or empty
+     */
+    public static Map<String, Object> readLastValues() {
+        Map<String, Object> result = new HashMap<String, Object>();
+        flush();
+        synchronized (IO_LOCK) {
+            if (null != directory) {
+                try {
+                    File[] segments = listSegments();
+                    for (int s = 0; s < segments.length; s++) {
+                        read(segments[s], result);
+                    }
+                } catch (IOException e) {
+                    Bundle.getLogger(BindingJournal.class).warn("Cannot read binding journal: " + e.getMessage());
+                }
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Writes the pending bindings and closes the current segment, if any.
+     */
+    public static void close() {
+        flush();
+        synchronized (IO_LOCK) {
+            closeSegment();
+        }
+    }
+
+    /**
+     * Closes the current segment, if any. Requires {@link #IO_LOCK}.
+     */
+    private static void closeSegment() {
+        if (null != out) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                Bundle.getLogger(BindingJournal.class).warn("Cannot close binding journal: " + e.getMessage());
+            }
+            out = null;
+        }
+    }
+
+    /**
+     * Opens a new segment after the last existing one.
+     * 
+     * @throws IOException if the segment cannot be created
+     */
+    private static void open() throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        File[] segments = listSegments();
+        int segment = segments.length > 0 ? getNumber(segments[segments.length - 1]) + 1 : 0;
+        out = create(getSegmentFile(segment));
+        defined = new HashMap<String, Integer>();
+    }
+
+    /**
+     * Closes the current segment, compacts the closed segments if required and opens a new segment.
+     * 
+     * @throws IOException if rolling fails
+     */
+    private static void roll() throws IOException {
+        closeSegment();
+        File[] segments = listSegments();
+        if (segments.length >= maxSegments) {
+            compact(segments);
+        }
+        open();
+    }
+
+    /**
+     * Compacts the given segments into a single segment holding the last value per key. The compacted segment 
+     * replaces the last segment, i.e., a crash during compaction leads to duplicated but not to lost values.
+     * 
+     * @param segments the segments to compact in ascending order
+     * @throws IOException if compacting fails
+     */
+    private static void compact(File[] segments) throws IOException {
+        Map<String, Object> last = new HashMap<String, Object>();
+        long timestamp = 0;
+        for (int s = 0; s < segments.length; s++) {
+            timestamp = Math.max(timestamp, read(segments[s], last));
+        }
+        String[] keys = last.keySet().toArray(new String[last.size()]);
+        Object[] values = new Object[keys.length];
+        for (int k = 0; k < keys.length; k++) {
+            values[k] = last.get(keys[k]);
+        }
+        File tmp = new File(directory, PREFIX + "compact.tmp");
+        DataOutputStream compacted = create(tmp);
+        try {
+            write(compacted, timestamp, keys, values, keys.length, new HashMap<String, Integer>());
+        } finally {
+            compacted.close();
+        }
+        File target = segments[segments.length - 1];
+        Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, 
+            StandardCopyOption.ATOMIC_MOVE);
+        for (int s = 0; s < segments.length - 1; s++) {
+            Files.delete(segments[s].toPath());
+        }
+    }
+
+    /**
+     * Creates a segment file and writes the header.
+     * 
+     * @param file the file
+     * @return the output stream
+     * @throws IOException if the file cannot be created
+     */
+    private static DataOutputStream create(File file) throws IOException {
+        DataOutputStream result = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        result.writeInt(MAGIC);
+        result.writeByte(VERSION);
+        return result;
+    }
+    
+    /**
+     * Writes a binding record, preceded by the definitions of keys not yet used in the segment.
+     * 
+     * @param stream the output stream
+     * @param timestamp the timestamp of the binding in milliseconds
+     * @param keys the observable keys
+     * @param values the values of supported {@link #getType(Object) types}, in the sequence of <code>keys</code>
+     * @param count the number of values
+     * @param known the segment-local ids of the keys already defined in the segment (modified as a side effect)
+     * @throws IOException if writing fails
+     */
+    private static void write(DataOutputStream stream, long timestamp, String[] keys, Object[] values, int count, 
+        Map<String, Integer> known) throws IOException {
+        int[] ids = new int[count];
+        for (int v = 0; v < count; v++) {
+            Integer id = known.get(keys[v]);
+            if (null == id) {
+                id = known.size();
+                stream.writeByte(KEY);
+                stream.writeInt(id);
+                stream.writeUTF(keys[v]);
+                known.put(keys[v], id);
+            }
+            ids[v] = id;
+        }
+        stream.writeByte(BINDING);
+        stream.writeLong(timestamp);
+        stream.writeInt(count);
+        for (int v = 0; v < count; v++) {
+            stream.writeInt(ids[v]);
+            writeValue(stream, values[v]);
+        }
+    }
+
+    /**
+     * Returns the journal type of a value.
+     * 
+     * @param value the value
+     * @return the type, 0 if not supported
+     */
+    private static byte getType(Object value) {
+        byte result;
+        if (value instanceof Double) {
+            result = TYPE_DOUBLE;
+        } else if (value instanceof Integer) {
+            result = TYPE_INTEGER;
+        } else if (value instanceof Long) {
+            result = TYPE_LONG;
+        } else if (value instanceof Boolean) {
+            result = TYPE_BOOLEAN;
+        } else if (value instanceof String) {
+            result = TYPE_STRING;
+        } else {
+            result = 0;
+        }
+        return result;
+    }
+    
+    /**
+     * Writes a typed value.
+     * 
+     * @param stream the output stream
+     * @param value the value, must be of a supported {@link #getType(Object) type}
+     * @throws IOException if writing fails
+     */
+    private static void writeValue(DataOutputStream stream, Object value) throws IOException {
+        byte type = getType(value);
+        stream.writeByte(type);
+        switch (type) {
+        case TYPE_DOUBLE:
+            stream.writeDouble((Double) value);
+            break;
+        case TYPE_INTEGER:
+            stream.writeInt((Integer) value);
+            break;
+        case TYPE_LONG:
+            stream.writeLong((Long) value);
+            break;
+        case TYPE_BOOLEAN:
+            stream.writeBoolean((Boolean) value);
+            break;
+        default:
+            stream.writeUTF((String) value);
+            break;
+        }
+    }
+
+    /**
+     * Reads a typed value.
+     * 
+     * @param in the input stream
+     * @return the value
+     * @throws IOException if reading fails or the type is unknown
+     */
+    private static Object readValue(DataInputStream in) throws IOException {
+        Object result;
+        byte type = in.readByte();
+        switch (type) {
+        case TYPE_DOUBLE:
+            result = in.readDouble();
+            break;
+        case TYPE_INTEGER:
+            result = in.readInt();
+            break;
+        case TYPE_LONG:
+            result = in.readLong();
+            break;
+        case TYPE_BOOLEAN:
+            result = in.readBoolean();
+            break;
+        case TYPE_STRING:
+            result = in.readUTF();
+            break;
+        default:
+            throw new IOException("Unknown value type " + type);
+        }
+        return result;
+    }
+
+    /**
+     * Reads a segment and stores the last value per key in <code>last</code>. Stops at a truncated record.
+     * 
+     * @param file the segment file
+     * @param last the last values (modified as a side effect)
+     * @return the timestamp of the last complete binding record, 0 if there is none
+     * @throws IOException if the segment is not a journal segment or is corrupted
+     */
+    private static long read(File file, Map<String, Object> last) throws IOException {
+        long result = 0;
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                throw new IOException(file + " is not a binding journal segment");
+            }
+            Map<Integer, String> keys = new HashMap<Integer, String>();
+            Map<String, Object> binding = new HashMap<String, Object>();
+            boolean eof = false;
+            while (!eof) {
+                try {
+                    byte record = in.readByte();
+                    if (KEY == record) {
+                        int id = in.readInt();
+                        keys.put(id, in.readUTF());
+                    } else if (BINDING == record) {
+                        long timestamp = in.readLong();
+                        binding.clear();
+                        for (int v = 0, count = in.readInt(); v < count; v++) {
+                            String key = keys.get(in.readInt());
+                            binding.put(key, readValue(in));
+                        }
+                        binding.remove(null); // undefined keys, shall not occur
+                        last.putAll(binding); // only complete records
+                        result = timestamp;
+                    } else {
+                        throw new IOException("Unknown record type " + record + " in " + file);
+                    }
+                } catch (EOFException e) {
+                    eof = true;
+                }
+            }
+        } finally {
+            in.close();
+        }
+        return result;
+    }
+    
+    /**
+     * Returns the segment files in ascending order.
+     * 
+     * @return the segment files
+     */
+    private static File[] listSegments() {
+        List<File> result = new ArrayList<File>();
+        File[] files = directory.listFiles();
+        if (null != files) {
+            for (int f = 0; f < files.length; f++) {
+                if (getNumber(files[f]) >= 0) {
+                    result.add(files[f]);
+                }
+            }
+        }
+        File[] tmp = result.toArray(new File[result.size()]);
+        Arrays.sort(tmp); // fixed-width numbers
+        return tmp;
+    }
+    
+    /**
+     * Returns the file of a segment.
+     * 
+     * @param number the number of the segment
+     * @return the file
+     */
+    private static File getSegmentFile(int number) {
+        return new File(directory, String.format("%s%08d%s", PREFIX, number, SUFFIX));
+    }
+    
+    /**
+     * Returns the number of a segment file.
+     * 
+     * @param file the file
+     * @return the number, -1 if <code>file</code> is not a segment file
+     */
+    private static int getNumber(File file) {
+        int result = -1;
+        String name = file.getName();
+        if (name.startsWith(PREFIX) && name.endsWith(SUFFIX)) {
+            try {
+                result = Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+            } catch (NumberFormatException e) {
+                // not a segment
+            }
+        }
+        return result;
+    }
+
+}
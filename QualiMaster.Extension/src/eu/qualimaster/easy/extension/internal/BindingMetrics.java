@@ -0,0 +1,264 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.qualimaster.easy.extension.internal;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Collects metrics of the value binding path and exposes them via JMX on the platform MBean server, i.e., 
+ * without external services.
+ */
+public class BindingMetrics implements BindingMetricsMBean {
+
+    public static final String OBJECT_NAME = "eu.qualimaster.easy.extension:type=BindingMetrics";
+    private static final long[] BUCKET_BOUNDS = {1, 2, 5, 10, 20, 50, 100, 200, 500};
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    public static final BindingMetrics INSTANCE = new BindingMetrics(); // after the constants used for creation
+    
+    private AtomicLong bindings = new AtomicLong();
+    private AtomicLong keys = new AtomicLong();
+    private AtomicLong unresolvable = new AtomicLong();
+    private AtomicLong changed = new AtomicLong();
+    private AtomicLongArray bindingLatencies = new AtomicLongArray(BUCKET_BOUNDS.length + 1);
+    private AtomicLongArray takeoverLatencies = new AtomicLongArray(BUCKET_BOUNDS.length + 1);
+    private AtomicLong rebuilds = new AtomicLong();
+    private AtomicLong lastRebuild = new AtomicLong();
+    private AtomicLong totalRebuild = new AtomicLong();
+    private AtomicLong identifierBuilds = new AtomicLong();
+    private AtomicLong totalIdentifierBuild = new AtomicLong(); // nanos, builds of shards are short
+    private long currentSecond;
+    private long currentSecondCount;
+    private long lastSecondCount;
+    
+    /**
+     * Prevents external creation.
+     */
+    private BindingMetrics() {
+    }
+
+    /**
+     * Registers {@link #INSTANCE} with the platform MBean server if not already done.
+     */
+    public static void register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            }
+        } catch (JMException e) {
+            Bundle.getLogger(BindingMetrics.class).warn("Cannot register binding metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Unregisters {@link #INSTANCE} from the platform MBean server if registered.
+     */
+    public static void unregister() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            Bundle.getLogger(BindingMetrics.class).warn("Cannot unregister binding metrics: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Records a binding.
+     * 
+     * @param result the binding result
+     * @param unresolvableKeys the number of keys skipped as their observable IDs are known to be unresolvable
+     * @param bindingNanos the overall binding time in nanoseconds
+     * @param takeoverNanos the time for taking over the values into the configuration in nanoseconds
+     */
+    void recordBinding(BindingResult result, int unresolvableKeys, long bindingNanos, long takeoverNanos) {
+        bindings.incrementAndGet();
+        keys.addAndGet(result.getKeyCount());
+        unresolvable.addAndGet(unresolvableKeys);
+        changed.addAndGet(result.getChangedVariables().size());
+        bindingLatencies.incrementAndGet(getBucket(bindingNanos));
+        takeoverLatencies.incrementAndGet(getBucket(takeoverNanos));
+        long second = System.nanoTime() / SECOND;
+        synchronized (this) {
+            if (second != currentSecond) {
+                lastSecondCount = second == currentSecond + 1 ? currentSecondCount : 0;
+                currentSecond = second;
+                currentSecondCount = 0;
+            }
+            currentSecondCount++;
+        }
+    }
+    
+    /**
+     * Records an identifier rebuild.
+     * 
+     * @param nanos the duration of the rebuild in nanoseconds
+     */
+    void recordRebuild(long nanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        rebuilds.incrementAndGet();
+        lastRebuild.set(millis);
+        totalRebuild.addAndGet(millis);
+    }
+    
+    /**
+     * Records building the identifier of a new binder or of a new {@link BindingShard shard}.
+     * 
+     * @param nanos the duration of the build in nanoseconds
+     */
+    void recordIdentifierBuild(long nanos) {
+        identifierBuilds.incrementAndGet();
+        totalIdentifierBuild.addAndGet(nanos);
+    }
+    
+    /**
+     * Returns the histogram bucket for a latency.
+     * 
+     * @param nanos the latency in nanoseconds
+     * @return the bucket index, see {@link #getLatencyBucketBounds()}
+     */
+    public static int getBucket(long nanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int result = BUCKET_BOUNDS.length;
+        for (int b = 0; result == BUCKET_BOUNDS.length && b < BUCKET_BOUNDS.length; b++) {
+            if (millis < BUCKET_BOUNDS[b]) {
+                result = b;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Turns a histogram into an array.
+     * 
+     * @param histogram the histogram
+     * @return the array
+     */
+    private static long[] toArray(AtomicLongArray histogram) {
+        long[] result = new long[histogram.length()];
+        for (int h = 0; h < result.length; h++) {
+            result[h] = histogram.get(h);
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized long getBindingsPerSecond() {
+        long second = System.nanoTime() / SECOND;
+        long result;
+        if (second == currentSecond) {
+            result = lastSecondCount;
+        } else if (second == currentSecond + 1) {
+            result = currentSecondCount;
+        } else {
+            result = 0;
+        }
+        return result;
+    }
+
+    @Override
+    public long getBindingCount() {
+        return bindings.get();
+    }
+
+    @Override
+    public double getKeysPerBinding() {
+        long count = bindings.get();
+        return 0 == count ? 0 : keys.get() / (double) count;
+    }
+
+    @Override
+    public long getUnresolvableKeyCount() {
+        return unresolvable.get();
+    }
+
+    @Override
+    public long getChangedValueCount() {
+        return changed.get();
+    }
+
+    @Override
+    public long[] getLatencyBucketBounds() {
+        return BUCKET_BOUNDS.clone();
+    }
+
+    @Override
+    public long[] getBindingLatencyHistogram() {
+        return toArray(bindingLatencies);
+    }
+
+    @Override
+    public long[] getTakeoverLatencyHistogram() {
+        return toArray(takeoverLatencies);
+    }
+
+    @Override
+    public long getRebuildCount() {
+        return rebuilds.get();
+    }
+
+    @Override
+    public long getLastRebuildMillis() {
+        return lastRebuild.get();
+    }
+
+    @Override
+    public long getTotalRebuildMillis() {
+        return totalRebuild.get();
+    }
+
+    @Override
+    public long getIdentifierBuildCount() {
+        return identifierBuilds.get();
+    }
+
+    @Override
+    public long getTotalIdentifierBuildMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalIdentifierBuild.get());
+    }
+
+    @Override
+    public void reset() {
+        bindings.set(0);
+        keys.set(0);
+        unresolvable.set(0);
+        changed.set(0);
+        for (int b = 0; b <= BUCKET_BOUNDS.length; b++) {
+            bindingLatencies.set(b, 0);
+            takeoverLatencies.set(b, 0);
+        }
+        rebuilds.set(0);
+        lastRebuild.set(0);
+        totalRebuild.set(0);
+        identifierBuilds.set(0);
+        totalIdentifierBuild.set(0);
+        synchronized (this) {
+            currentSecondCount = 0;
+            lastSecondCount = 0;
+        }
+    }
+
+}
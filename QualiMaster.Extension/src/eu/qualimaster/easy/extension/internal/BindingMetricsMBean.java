@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.qualimaster.easy.extension.internal;
+
+/**
+ * JMX management interface of the value binding metrics, e.g., for JConsole.
+ */
+public interface BindingMetricsMBean {
+
+    /**
+     * Returns the number of bindings in the last completed second.
+     * 
+     * @return the bindings per second
+     */
+    public long getBindingsPerSecond();
+
+    /**
+     * Returns the total number of bindings.
+     * 
+     * @return the number of bindings
+     */
+    public long getBindingCount();
+    
+    /**
+     * Returns the average number of keys per binding.
+     * 
+     * @return the average number of keys
+     */
+    public double getKeysPerBinding();
+
+    /**
+     * Returns the total number of keys skipped as their observable IDs are known to be unresolvable. Keys handed 
+     * over to the generic identification mechanism are not counted, even if that mechanism cannot map them.
+     * 
+     * @return the number of unresolvable keys
+     */
+    public long getUnresolvableKeyCount();
+
+    /**
+     * Returns the total number of variables changed by bindings, including derived slots.
+     * 
+     * @return the number of changed variables
+     */
+    public long getChangedValueCount();
+
+    /**
+     * Returns the upper bounds of the latency histogram buckets in milliseconds. The last bucket is unbounded.
+     * 
+     * @return the upper bounds
+     */
+    public long[] getLatencyBucketBounds();
+
+    /**
+     * Returns the histogram of the overall binding latencies.
+     * 
+     * @return the number of bindings per bucket, see {@link #getLatencyBucketBounds()}
+     */
+    public long[] getBindingLatencyHistogram();
+
+    /**
+     * Returns the histogram of the latencies for taking over the values into the configuration.
+     * 
+     * @return the number of bindings per bucket, see {@link #getLatencyBucketBounds()}
+     */
+    public long[] getTakeoverLatencyHistogram();
+
+    /**
+     * Returns the number of identifier rebuilds, e.g., due to model updates.
+     * 
+     * @return the number of rebuilds
+     */
+    public long getRebuildCount();
+
+    /**
+     * Returns the duration of the last identifier rebuild.
+     * 
+     * @return the duration in milliseconds
+     */
+    public long getLastRebuildMillis();
+
+    /**
+     * Returns the total duration of all identifier rebuilds.
+     * 
+     * @return the duration in milliseconds
+     */
+    public long getTotalRebuildMillis();
+
+    /**
+     * Returns the number of identifiers built for new binders and for the shards of parallel bindings. Rebuilds 
+     * are counted separately, see {@link #getRebuildCount()}.
+     * 
+     * @return the number of builds
+     */
+    public long getIdentifierBuildCount();
+
+    /**
+     * Returns the total duration of all identifier builds for new binders and shards.
+     * 
+     * @return the duration in milliseconds
+     */
+    public long getTotalIdentifierBuildMillis();
+    
+    /**
+     * Resets all metrics.
+     */
+    public void reset();
+    
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.qualimaster.easy.extension.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import eu.qualimaster.monitoring.events.FrozenSystemState;
+
+/**
+ * Priority classes for observable keys and an optional time budget per binding, e.g., to bind availability or 
+ * latency values in time under overload. Keys of high priority are bound first, then normal priority keys, then 
+ * low priority keys. If the time budget of a binding is exceeded, the remaining low priority keys are deferred to 
+ * the next binding for the same configuration. Priorities are configured by {@link FrozenSystemState} prefix and 
+ * observable name. Binders may cache resolved priorities as long as the priority settings do not change.
+ */
+public class BindingPriorities {
+
+    /**
+     * The priority classes.
+     */
+    public static enum Priority {
+        HIGH,
+        NORMAL,
+        LOW;
+    }
+    
+    private static final String ANY = "";
+    private static Map<String, Priority> priorities = new ConcurrentHashMap<String, Priority>();
+    private static final CacheStatistics CACHE_STATISTICS = new CacheStatistics();
+    private static volatile long version = 0; // incremented after changing priorities
+    private static volatile long timeBudget = 0;
+
+    /**
+     * Defines the priority of observable keys.
+     * 
+     * @param prefix the {@link FrozenSystemState} prefix of the keys, e.g., {@link FrozenSystemState#MACHINE}, 
+     *     <b>null</b> for any prefix
+     * @param observable the name of the observable, e.g., <code>AVAILABLE</code>, <b>null</b> for any observable
+     * @param priority the priority, <b>null</b> to remove the priority
+     */
+    public static synchronized void setPriority(String prefix, String observable, Priority priority) {
+        String key = toKey(prefix, observable);
+        if (null == priority) {
+            priorities.remove(key);
+        } else {
+            priorities.put(key, priority);
+        }
+        version++;
+    }
+    
+    /**
+     * Defines the time budget per binding. Low priority keys that are not bound within the budget are deferred 
+     * to the next binding.
+     * 
+     * @param millis the budget in milliseconds, no budget if not positive (default)
+     */
+    public static void setTimeBudget(long millis) {
+        timeBudget = Math.max(0, millis);
+    }
+    
+    /**
+     * Returns the time budget per binding.
+     * 
+     * @return the budget in milliseconds, <code>0</code> for no budget
+     */
+    public static long getTimeBudget() {
+        return timeBudget;
+    }
+    
+    /**
+     * Removes all priorities and the time budget.
+     */
+    public static synchronized void clear() {
+        priorities.clear();
+        version++;
+        timeBudget = 0;
+    }
+    
+    /**
+     * Returns whether priorities or a time budget are defined.
+     * 
+     * @return <code>true</code> if keys shall be prioritized, <code>false</code> else
+     */
+    static boolean isEnabled() {
+        return !priorities.isEmpty() || timeBudget > 0;
+    }
+    
+    /**
+     * Returns the statistics of the priority caches of all binders.
+     * 
+     * @return the statistics
+     */
+    public static CacheStatistics getCacheStatistics() {
+        return CACHE_STATISTICS;
+    }
+    
+    /**
+     * Returns the version of the priority settings, which changes whenever priorities are changed. Cached 
+     * priorities are valid as long as the version did not change since reading it before resolving them.
+     * 
+     * @return the version
+     */
+    static long getVersion() {
+        return version;
+    }
+    
+    /**
+     * Returns the priority of an observable key. The most specific priority setting applies, i.e., for prefix and 
+     * observable, for the observable, for the prefix, for any key. If none applies, the priority is 
+     * {@link Priority#NORMAL}.
+     * 
+     * @param key the observable key
+     * @return the priority
+     */
+    public static Priority getPriority(String key) {
+        String prefix = ANY;
+        String observable = ANY;
+        int pos = key.indexOf(FrozenSystemState.SEPARATOR);
+        if (pos > 0) {
+            prefix = key.substring(0, pos);
+            observable = key.substring(key.lastIndexOf(FrozenSystemState.SEPARATOR) 
+                + FrozenSystemState.SEPARATOR.length());
+        }
+        Priority result = priorities.get(toKey(prefix, observable));
+        if (null == result) {
+            result = priorities.get(toKey(null, observable));
+        }
+        if (null == result) {
+            result = priorities.get(toKey(prefix, null));
+        }
+        if (null == result) {
+            result = priorities.get(toKey(null, null));
+        }
+        if (null == result) {
+            result = Priority.NORMAL;
+        }
+        return result;
+    }
+    
+    /**
+     * Returns the internal key for a priority setting.
+     * 
+     * @param prefix the prefix, <b>null</b> for any prefix
+     * @param observable the observable, <b>null</b> for any observable
+     * @return the key
+     */
+    private static String toKey(String prefix, String observable) {
+        return (null == prefix ? ANY : prefix) + FrozenSystemState.SEPARATOR + (null == observable ? ANY : observable);
+    }
+
+}
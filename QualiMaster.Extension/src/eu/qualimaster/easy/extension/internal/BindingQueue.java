@@ -0,0 +1,182 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.qualimaster.easy.extension.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+import eu.qualimaster.coordination.RepositoryConnector;
+import eu.qualimaster.coordination.RepositoryConnector.IPhase;
+import net.ssehub.easy.varModel.confModel.Configuration;
+
+/**
+ * Asynchronous, coalescing binding queue for a single configuration. Submitted bindings are merged into one 
+ * pending binding, i.e., only the latest value per key is kept, and applied by a dedicated worker thread. The 
+ * number of submissions that are not yet applied, including the ones being applied, is bounded, i.e., submitters 
+ * block if the worker falls behind. The worker binds in the phase of the latest submitter. The worker terminates 
+ * if there was nothing to do for a while and is restarted on the next submission.
+ */
+public class BindingQueue implements Runnable {
+
+    public static final long DEFAULT_IDLE_TIMEOUT = 5000;
+    
+    private Configuration config;
+    private int capacity;
+    private long idleTimeout;
+    private Map<String, Object> pending = new HashMap<String, Object>();
+    private List<CompletableFuture<BindingResult>> waiting = new ArrayList<CompletableFuture<BindingResult>>();
+    private int applying;
+    private IPhase phase;
+    private Thread worker;
+    
+    /**
+     * Creates a binding queue with {@link #DEFAULT_IDLE_TIMEOUT default idle timeout}.
+     * 
+     * @param config the configuration to bind to
+     * @param capacity the maximum number of submissions that are not yet applied
+     */
+    public BindingQueue(Configuration config, int capacity) {
+        this(config, capacity, DEFAULT_IDLE_TIMEOUT);
+    }
+
+    /**
+     * Creates a binding queue.
+     * 
+     * @param config the configuration to bind to
+     * @param capacity the maximum number of submissions that are not yet applied
+     * @param idleTimeout the time in milliseconds after which an idle worker terminates
+     */
+    public BindingQueue(Configuration config, int capacity, long idleTimeout) {
+        this.config = config;
+        this.capacity = Math.max(1, capacity);
+        this.idleTimeout = Math.max(1, idleTimeout);
+    }
+    
+    /**
+     * Submits a binding. Blocks if the maximum number of pending submissions is reached.
+     * 
+     * @param bindings The new values to set in form of <code>&lt;id for a (nested) variable, value&gt;</code>
+     * @return the completion handle, provides the result of the (merged) binding that applied 
+     *     <code>bindings</code>
+     */
+    public synchronized Future<BindingResult> submit(Map<String, ?> bindings) {
+        CompletableFuture<BindingResult> result = new CompletableFuture<BindingResult>();
+        try {
+            while (waiting.size() + applying >= capacity) {
+                wait();
+            }
+            pending.putAll(bindings); // latest value wins
+            waiting.add(result);
+            IPhase submitter = RepositoryConnector.getPhase(Thread.currentThread());
+            if (null != submitter) {
+                phase = submitter;
+            }
+            if (null == worker) {
+                worker = new Thread(this, "QM binding queue");
+                worker.setDaemon(true);
+                worker.start();
+            }
+            notifyAll();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+    
+    /**
+     * Returns whether the worker thread is running.
+     * 
+     * @return <code>true</code> if the worker is running, <code>false</code> if it terminated as it was idle
+     */
+    public synchronized boolean isRunning() {
+        return null != worker;
+    }
+
+    @Override
+    public void run() {
+        boolean running = true;
+        while (running) {
+            Map<String, Object> bindings = null;
+            List<CompletableFuture<BindingResult>> completions = null;
+            IPhase bindingPhase = null;
+            synchronized (this) {
+                if (waiting.isEmpty()) {
+                    try {
+                        wait(idleTimeout);
+                    } catch (InterruptedException e) {
+                        // check below
+                    }
+                }
+                if (waiting.isEmpty()) {
+                    worker = null;
+                    running = false;
+                } else {
+                    bindings = pending;
+                    completions = waiting;
+                    bindingPhase = phase;
+                    applying = completions.size(); // capacity is released when applied
+                    pending = new HashMap<String, Object>();
+                    waiting = new ArrayList<CompletableFuture<BindingResult>>();
+                }
+            }
+            if (null != bindings) {
+                RepositoryConnector.associatePhase(Thread.currentThread(), bindingPhase);
+                apply(bindings, completions);
+                synchronized (this) {
+                    applying = 0;
+                    notifyAll(); // wake up blocked submitters
+                }
+            }
+        }
+        RepositoryConnector.associatePhase(Thread.currentThread(), null);
+    }
+
+    /**
+     * Applies the merged bindings and completes the related completion handles.
+     * 
+     * @param bindings the bindings
+     * @param completions the completion handles
+     */
+    private void apply(Map<String, Object> bindings, List<CompletableFuture<BindingResult>> completions) {
+        try {
+            BindingResult result = bind(bindings);
+            for (int c = 0; c < completions.size(); c++) {
+                completions.get(c).complete(result);
+            }
+        } catch (RuntimeException e) {
+            Bundle.getLogger(BindingQueue.class).exception(e);
+            for (int c = 0; c < completions.size(); c++) {
+                completions.get(c).completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Binds merged values to the configuration of this queue. 
+     * 
+     * @param bindings the merged values
+     * @return the binding result
+     */
+    protected BindingResult bind(Map<String, Object> bindings) {
+        return BindValuesInstantiator.bind(config, bindings);
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.qualimaster.easy.extension.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import net.ssehub.easy.varModel.confModel.IConfigurationElement;
+import net.ssehub.easy.varModel.confModel.IDecisionVariable;
+import net.ssehub.easy.varModel.cst.ConstraintSyntaxTree;
+import net.ssehub.easy.varModel.model.AbstractVariable;
+import net.ssehub.easy.varModel.model.Constraint;
+import net.ssehub.easy.varModel.model.filter.DeclrationInConstraintFinder;
+
+/**
+ * Describes the outcome of binding a set of runtime values to a configuration.
+ */
+public class BindingResult {
+
+    private int keyCount;
+    private int skippedCount;
+    private int profilingCount;
+    private int deferredCount;
+    private Set<IDecisionVariable> changed = Collections.emptySet();
+    
+    /**
+     * Creates a binding result.
+     * 
+     * @param keyCount the number of keys passed in for binding
+     */
+    BindingResult(int keyCount) {
+        this.keyCount = keyCount;
+    }
+    
+    /**
+     * Records that a key was skipped as its value did not change since the last binding.
+     */
+    void skipped() {
+        skippedCount++;
+    }
+    
+    /**
+     * Records that a key was dropped as it belongs to a pipeline being profiled.
+     */
+    void profiling() {
+        profilingCount++;
+    }
+    
+    /**
+     * Records that a low priority key was deferred to the next binding as the time budget was exceeded.
+     */
+    void deferred() {
+        deferredCount++;
+    }
+    
+    /**
+     * Defines the variables changed by the binding.
+     * 
+     * @param changed the changed variables
+     */
+    void setChangedVariables(Set<IDecisionVariable> changed) {
+        this.changed = Collections.unmodifiableSet(changed);
+    }
+    
+    /**
+     * Returns the number of keys passed in for binding.
+     * 
+     * @return the number of keys
+     */
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    /**
+     * Returns the number of keys that were not bound as their value did not change since the last binding 
+     * (delta binding mode).
+     * 
+     * @return the number of skipped keys
+     */
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * Returns the number of keys that were dropped as they belong to pipelines being profiled.
+     * 
+     * @return the number of dropped keys
+     */
+    public int getProfilingCount() {
+        return profilingCount;
+    }
+
+    /**
+     * Returns the number of low priority keys that were deferred to the next binding as the time budget was 
+     * exceeded, see {@link BindingPriorities}.
+     * 
+     * @return the number of deferred keys
+     */
+    public int getDeferredCount() {
+        return deferredCount;
+    }
+    
+    /**
+     * Returns the variables whose values were changed by the binding, including derived slots such as the 
+     * propagated slots of algorithms.
+     * 
+     * @return the changed variables
+     */
+    public Set<IDecisionVariable> getChangedVariables() {
+        return changed;
+    }
+    
+    /**
+     * Selects the constraints that may be affected by the binding, i.e., the constraints referring to a changed 
+     * variable or to one of its parent variables, e.g., to narrow down runtime reasoning to these constraints. 
+     * As slot declarations are shared by all instances of a compound, the selection may include constraints 
+     * that are not affected.
+     * 
+     * @param constraints the constraints to select from
+     * @return the potentially affected constraints
+     */
+    public List<Constraint> selectAffectedConstraints(Collection<Constraint> constraints) {
+        Set<AbstractVariable> declarations = new HashSet<AbstractVariable>();
+        for (IDecisionVariable var : changed) {
+            IConfigurationElement elt = var;
+            while (elt instanceof IDecisionVariable) {
+                declarations.add(elt.getDeclaration());
+                elt = elt.getParent();
+            }
+        }
+        List<Constraint> result = new ArrayList<Constraint>();
+        if (!declarations.isEmpty()) {
+            for (Constraint constraint : constraints) {
+                ConstraintSyntaxTree cst = constraint.getConsSyntax();
+                if (null != cst && !Collections.disjoint(declarations, 
+                    new DeclrationInConstraintFinder(cst).getDeclarations())) {
+                    result.add(constraint);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "keys: " + keyCount + " skipped: " + skippedCount + " profiling: " + profilingCount + " deferred: " 
+            + deferredCount + " changed: " + changed.size();
+    }
+
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.qualimaster.easy.extension.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import eu.qualimaster.coordination.RepositoryConnector;
+import eu.qualimaster.coordination.RepositoryConnector.IPhase;
+import net.ssehub.easy.varModel.confModel.Configuration;
+import net.ssehub.easy.varModel.confModel.IDecisionVariable;
+
+/**
+ * Resolves and converts the values of a single pipeline as part of a parallel binding. Each shard has its own 
+ * {@link IvmlElementIdentifier}, i.e., its own resolution structures, so that shards of different pipelines can 
+ * resolve and convert in parallel. Converted values are always staged and {@link #applyStaged() assigned} 
+ * afterwards by the {@link ConfigurationBinder} on its thread, i.e., shards do not modify the configuration. 
+ * Values that cannot be bound directly are collected for the generic mechanism of the binder. Shards are warmed up 
+ * together with their binder.
+ */
+class BindingShard implements Callable<Void> {
+
+    private IPhase phase;
+    private ObservableKeys keys;
+    private IvmlElementIdentifier identifier;
+    private int[] ids = new int[16]; // ObservableKeys
+    private Object[] values = new Object[16];
+    private int size;
+    private List<IvmlElementIdentifier.StagedValue> staging = new ArrayList<IvmlElementIdentifier.StagedValue>();
+    private Map<String, Object> unresolved = new HashMap<String, Object>();
+    private Set<IDecisionVariable> changed = new HashSet<IDecisionVariable>();
+
+    /**
+     * Creates a shard.
+     * 
+     * @param config the configuration to bind to
+     * @param phase the phase the configuration belongs to, may be <b>null</b> if unknown
+     * @param keys the int-coded observable keys of the binder
+     */
+    BindingShard(Configuration config, IPhase phase, ObservableKeys keys) {
+        this.phase = phase;
+        this.keys = keys;
+        long start = System.nanoTime();
+        this.identifier = new IvmlElementIdentifier(config, keys);
+        BindingMetrics.INSTANCE.recordIdentifierBuild(System.nanoTime() - start);
+    }
+    
+    /**
+     * Prepares this shard for a new binding.
+     */
+    void start() {
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+        unresolved.clear();
+        changed.clear();
+        staging.clear();
+    }
+    
+    /**
+     * Adds a value to bind.
+     * 
+     * @param key the {@link ObservableKeys int-coded} observable key
+     * @param value the value
+     */
+    void add(int key, Object value) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, 2 * size);
+            values = Arrays.copyOf(values, 2 * size);
+        }
+        ids[size] = key;
+        values[size++] = value;
+    }
+    
+    /**
+     * Returns whether values were added for the current binding.
+     * 
+     * @return <code>true</code> if there are values to bind, <code>false</code> else
+     */
+    boolean hasValues() {
+        return size > 0;
+    }
+
+    @Override
+    public Void call() {
+        IPhase before = RepositoryConnector.getPhase(Thread.currentThread()); // may run on the binding thread
+        RepositoryConnector.associatePhase(Thread.currentThread(), phase); // for pipeline information
+        try {
+            for (int v = 0; v < size; v++) {
+                if (!identifier.bindValue(ids[v], values[v], staging)) {
+                    unresolved.put(keys.getKey(ids[v]), values[v]);
+                }
+            }
+        } finally {
+            RepositoryConnector.associatePhase(Thread.currentThread(), before);
+        }
+        return null;
+    }
+    
+    /**
+     * Returns whether the {@link ObservableKeys int-coded} observable ID is not known to be unresolvable by this 
+     * shard.
+     * 
+     * @param key the int-coded observable ID
+     * @return <code>false</code> if resolving the ID failed, <code>true</code> else
+     * @see IvmlElementIdentifier#isResolvable(int)
+     */
+    boolean isResolvable(int key) {
+        return identifier.isResolvable(key);
+    }
+    
+    /**
+     * Warms up the identifier of this shard for the observable IDs of <code>pipeline</code> so that the first 
+     * parallel binding does not need to build the resolution structures. Requires the phase of the configuration 
+     * to be associated with the calling thread.
+     * 
+     * @param pipeline the pipeline this shard binds the values for
+     * @return the number of resolved observable IDs
+     * @see IvmlElementIdentifier#warmUpPipeline(String, boolean)
+     */
+    int warmUp(String pipeline) {
+        return identifier.warmUpPipeline(pipeline, false);
+    }
+    
+    /**
+     * Assigns the staged values of the current binding including their propagation. Must be called by the binder 
+     * while holding its locks, i.e., not concurrently to other shards of the same configuration.
+     */
+    void applyStaged() {
+        identifier.collectChanges(changed);
+        identifier.applyStaged(staging);
+        identifier.collectChanges(null);
+        staging.clear();
+    }
+    
+    /**
+     * Returns the values of the current binding that could not be bound directly.
+     * 
+     * @return the unresolved values
+     */
+    Map<String, Object> getUnresolved() {
+        return unresolved;
+    }
+
+    /**
+     * Returns the variables changed by the current binding.
+     * 
+     * @return the changed variables
+     */
+    Set<IDecisionVariable> getChanged() {
+        return changed;
+    }
+    
+    /**
+     * Returns the number of values skipped so far as their observable IDs cannot be resolved.
+     * 
+     * @return the number of unmapped values
+     */
+    int getUnmappedCount() {
+        return identifier.getUnmappedCount();
+    }
+
+    /**
+     * Replaces the int-coded observable keys, e.g., as the binder recycles its keys.
+     * 
+     * @param keys the new keys
+     * @see IvmlElementIdentifier#setKeys(ObservableKeys)
+     */
+    void setKeys(ObservableKeys keys) {
+        this.keys = keys;
+        identifier.setKeys(keys);
+    }
+
+    /**
+     * Invalidates the cached information related to <code>pipeline</code>.
+     * 
+     * @param pipeline the name of the pipeline
+     * @see IvmlElementIdentifier#invalidatePipeline(String)
+     */
+    void invalidatePipeline(String pipeline) {
+        identifier.invalidatePipeline(pipeline);
+    }
+
+}
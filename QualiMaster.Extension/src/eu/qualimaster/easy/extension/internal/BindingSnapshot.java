@@ -0,0 +1,330 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.qualimaster.easy.extension.internal;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.ssehub.easy.instantiation.core.model.common.VilException;
+import net.ssehub.easy.varModel.confModel.AssignmentState;
+import net.ssehub.easy.varModel.confModel.Configuration;
+import net.ssehub.easy.varModel.confModel.ConfigurationException;
+import net.ssehub.easy.varModel.confModel.IConfigurationElement;
+import net.ssehub.easy.varModel.confModel.IDecisionVariable;
+import net.ssehub.easy.varModel.model.AbstractVariable;
+import net.ssehub.easy.varModel.model.values.BooleanValue;
+import net.ssehub.easy.varModel.model.values.CompoundValue;
+import net.ssehub.easy.varModel.model.values.IntValue;
+import net.ssehub.easy.varModel.model.values.RealValue;
+import net.ssehub.easy.varModel.model.values.ReferenceValue;
+import net.ssehub.easy.varModel.model.values.StringValue;
+import net.ssehub.easy.varModel.model.values.Value;
+import net.ssehub.easy.varModel.model.values.ValueDoesNotMatchTypeException;
+import net.ssehub.easy.varModel.model.values.ValueFactory;
+
+/**
+ * Writes and restores point-in-time snapshots of runtime-bound variable values in a compact binary format. 
+ * A snapshot covers all runtime-assigned values of a configuration, i.e., the bound values, the derived algorithm 
+ * slots and the values of the mapped runtime instances of algorithms, regardless of when they were bound. 
+ * Variables are denoted by a stable path, i.e., the qualified name of the top-level variable followed by the names 
+ * of the nested slots, so that restoring does not parse observable IDs. References, i.e., actual algorithms, are 
+ * stored by the name of the referenced algorithm and restored via {@link PipelineHelper#getAvailable(
+ * IDecisionVariable, String)}.
+ * 
+ * Format: magic number, version byte, timestamp, entry count, then per entry the path length, the path 
+ * segments, a type tag and the value.
+ */
+class BindingSnapshot {
+
+    private static final int MAGIC = 0x514D4253; // QMBS
+    private static final byte VERSION = 1;
+    private static final byte TYPE_INTEGER = 1;
+    private static final byte TYPE_REAL = 2;
+    private static final byte TYPE_BOOLEAN = 3;
+    private static final byte TYPE_STRING = 4;
+    private static final byte TYPE_REFERENCE = 5;
+    
+    /**
+     * Prevents external creation.
+     */
+    private BindingSnapshot() {
+    }
+    
+    /**
+     * Writes a snapshot of the runtime-assigned values of <code>config</code>, i.e., of all (nested) variables in
+     * state {@link AssignmentState#USER_ASSIGNED} including the mapped runtime instances of algorithms. Values of 
+     * unsupported types and references to algorithms without name are not written.
+     * 
+     * @param config the configuration
+     * @param out the output stream
+     * @return the number of written variables
+     * @throws IOException if writing fails
+     */
+    static int write(Configuration config, DataOutputStream out) throws IOException {
+        List<IDecisionVariable> selected = new ArrayList<IDecisionVariable>();
+        List<Object> values = new ArrayList<Object>();
+        for (IDecisionVariable variable : config) {
+            collect(variable, selected, values);
+        }
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(System.currentTimeMillis());
+        out.writeInt(selected.size());
+        List<String> path = new ArrayList<String>();
+        for (int s = 0; s < selected.size(); s++) {
+            IDecisionVariable variable = selected.get(s);
+            path.clear();
+            IConfigurationElement element = variable;
+            while (element.getParent() instanceof IDecisionVariable) {
+                path.add(0, element.getDeclaration().getName());
+                element = element.getParent();
+            }
+            path.add(0, element.getDeclaration().getQualifiedName());
+            out.writeByte(path.size());
+            for (int p = 0; p < path.size(); p++) {
+                out.writeUTF(path.get(p));
+            }
+            writeValue(out, variable.getValue(), values.get(s));
+        }
+        return selected.size();
+    }
+    
+    /**
+     * Collects <code>variable</code> and its nested compound slots if they hold runtime-assigned values.
+     * 
+     * @param variable the variable to start at
+     * @param selected the variables to be written (modified as a side effect)
+     * @param values the values to be written for <code>selected</code>, the names of the referenced algorithms for 
+     *     references (modified as a side effect)
+     */
+    private static void collect(IDecisionVariable variable, List<IDecisionVariable> selected, List<Object> values) {
+        Value value = variable.getValue();
+        if (AssignmentState.USER_ASSIGNED == variable.getState()) {
+            byte type = getType(value);
+            Object written = TYPE_REFERENCE == type ? getReferencedName(variable, (ReferenceValue) value) : value;
+            if (type > 0 && null != written) {
+                selected.add(variable);
+                values.add(written);
+            }
+        }
+        if (value instanceof CompoundValue) {
+            for (int n = 0; n < variable.getNestedElementsCount(); n++) {
+                collect(variable.getNestedElement(n), selected, values);
+            }
+        }
+    }
+    
+    /**
+     * Returns the name of the algorithm referenced by <code>value</code>.
+     * 
+     * @param variable the variable holding <code>value</code>
+     * @param value the reference
+     * @return the name, <b>null</b> if the referenced variable or its name is unknown
+     */
+    private static String getReferencedName(IDecisionVariable variable, ReferenceValue value) {
+        IDecisionVariable referenced = variable.getConfiguration().getDecision(value.getValue());
+        return VariableHelper.getName(referenced);
+    }
+
+    /**
+     * Returns the snapshot type of a value.
+     * 
+     * @param value the value, may be <b>null</b>
+     * @return the type, 0 if not supported
+     */
+    private static byte getType(Value value) {
+        byte result = 0;
+        if (null != value && null != value.getValue()) {
+            if (value instanceof IntValue) {
+                result = TYPE_INTEGER;
+            } else if (value instanceof RealValue) {
+                result = TYPE_REAL;
+            } else if (value instanceof BooleanValue) {
+                result = TYPE_BOOLEAN;
+            } else if (value instanceof StringValue) {
+                result = TYPE_STRING;
+            } else if (value instanceof ReferenceValue) {
+                result = TYPE_REFERENCE;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes a typed value.
+     * 
+     * @param out the output stream
+     * @param value the value, must be of a supported {@link #getType(Value) type}
+     * @param referencedName the name of the referenced algorithm if <code>value</code> is a reference
+     * @throws IOException if writing fails
+     */
+    private static void writeValue(DataOutputStream out, Value value, Object referencedName) throws IOException {
+        byte type = getType(value);
+        out.writeByte(type);
+        switch (type) {
+        case TYPE_INTEGER:
+            out.writeInt(((IntValue) value).getValue());
+            break;
+        case TYPE_REAL:
+            out.writeDouble(((RealValue) value).getValue());
+            break;
+        case TYPE_BOOLEAN:
+            out.writeBoolean(((BooleanValue) value).getValue());
+            break;
+        case TYPE_STRING:
+            out.writeUTF(((StringValue) value).getValue());
+            break;
+        default:
+            out.writeUTF(referencedName.toString());
+            break;
+        }
+    }
+
+    /**
+     * Restores a snapshot into <code>config</code>. Entries that do not match <code>config</code>, e.g., due to 
+     * a changed model, are skipped and logged.
+     * 
+     * @param config the configuration to restore the values into
+     * @param in the input stream
+     * @return the restored variables
+     * @throws IOException if reading fails or the input is not a snapshot
+     */
+    static Set<IDecisionVariable> read(Configuration config, DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+            throw new IOException("Not a binding snapshot");
+        }
+        in.readLong(); // timestamp, for diagnostics
+        int count = in.readInt();
+        Set<IDecisionVariable> result = new HashSet<IDecisionVariable>();
+        Map<String, IDecisionVariable> topLevel = new HashMap<String, IDecisionVariable>();
+        for (IDecisionVariable variable : config) {
+            topLevel.put(variable.getDeclaration().getQualifiedName(), variable);
+        }
+        for (int e = 0; e < count; e++) {
+            int length = in.readByte();
+            IDecisionVariable variable = topLevel.get(in.readUTF());
+            for (int p = 1; p < length; p++) {
+                String slot = in.readUTF();
+                if (null != variable) {
+                    variable = variable.getNestedElement(slot);
+                }
+            }
+            byte type = in.readByte();
+            Object value = readValue(in, type);
+            if (null != variable && restore(variable, type, value)) {
+                result.add(variable);
+            }
+        }
+        if (result.size() < count) {
+            Bundle.getLogger(BindingSnapshot.class).warn("Restored " + result.size() + " of " + count 
+                + " snapshot values, model may have changed");
+        }
+        return result;
+    }
+    
+    /**
+     * Reads a typed value.
+     * 
+     * @param in the input stream
+     * @param type the type tag
+     * @return the value, the name of the referenced element for references
+     * @throws IOException if reading fails or the type is unknown
+     */
+    private static Object readValue(DataInputStream in, byte type) throws IOException {
+        Object result;
+        switch (type) {
+        case TYPE_INTEGER:
+            result = in.readInt();
+            break;
+        case TYPE_REAL:
+            result = in.readDouble();
+            break;
+        case TYPE_BOOLEAN:
+            result = in.readBoolean();
+            break;
+        case TYPE_STRING:
+        case TYPE_REFERENCE:
+            result = in.readUTF();
+            break;
+        default:
+            throw new IOException("Unknown value type " + type);
+        }
+        return result;
+    }
+    
+    /**
+     * Restores a single value.
+     * 
+     * @param variable the variable to restore the value of
+     * @param type the type tag
+     * @param value the value as read
+     * @return <code>true</code> if restored, <code>false</code> else
+     */
+    private static boolean restore(IDecisionVariable variable, byte type, Object value) {
+        boolean done = false;
+        Object ivmlValue = value;
+        if (TYPE_REFERENCE == type) {
+            ivmlValue = findAvailable(variable, value.toString());
+        }
+        if (null != ivmlValue) {
+            try {
+                variable.setValue(ValueFactory.createValue(variable.getDeclaration().getType(), ivmlValue), 
+                    AssignmentState.USER_ASSIGNED);
+                done = true;
+            } catch (ValueDoesNotMatchTypeException e) {
+                Bundle.getLogger(BindingSnapshot.class).warn("Cannot restore " + variable.getQualifiedName() 
+                    + ": " + e.getMessage());
+            } catch (ConfigurationException e) {
+                Bundle.getLogger(BindingSnapshot.class).warn("Cannot restore " + variable.getQualifiedName() 
+                    + ": " + e.getMessage());
+            }
+        }
+        return done;
+    }
+    
+    /**
+     * Returns the declaration of the algorithm named <code>name</code> in the available slot of the parent of 
+     * <code>variable</code>.
+     * 
+     * @param variable the variable holding the reference
+     * @param name the name of the referenced algorithm
+     * @return the declaration, <b>null</b> if not found
+     */
+    private static AbstractVariable findAvailable(IDecisionVariable variable, String name) {
+        AbstractVariable result = null;
+        if (variable.getParent() instanceof IDecisionVariable) {
+            try {
+                IDecisionVariable algorithm = PipelineHelper.getAvailable((IDecisionVariable) variable.getParent(), 
+                    name);
+                if (null != algorithm) {
+                    result = algorithm.getDeclaration();
+                }
+            } catch (VilException e) {
+                Bundle.getLogger(BindingSnapshot.class).warn("Cannot restore " + variable.getQualifiedName() 
+                    + ": " + e.getMessage());
+            }
+        }
+        return result;
+    }
+
+}
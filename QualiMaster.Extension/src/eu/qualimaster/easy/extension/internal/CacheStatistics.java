@@ -0,0 +1,92 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.qualimaster.easy.extension.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects hit, miss and eviction counts of a cache, e.g., to size the cache properly. Instances may be shared 
+ * among several caches of the same kind.
+ */
+public class CacheStatistics {
+
+    private AtomicLong hits = new AtomicLong();
+    private AtomicLong misses = new AtomicLong();
+    private AtomicLong evictions = new AtomicLong();
+    
+    /**
+     * Records a cache hit.
+     */
+    void hit() {
+        hits.incrementAndGet();
+    }
+
+    /**
+     * Records a cache miss.
+     */
+    void miss() {
+        misses.incrementAndGet();
+    }
+
+    /**
+     * Records the eviction of a cache entry.
+     */
+    void evicted() {
+        evictions.incrementAndGet();
+    }
+    
+    /**
+     * Returns the number of cache hits.
+     * 
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of cache misses.
+     * 
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of evicted cache entries.
+     * 
+     * @return the number of evictions
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+    
+    /**
+     * Resets all counters.
+     */
+    public void reset() {
+        hits.set(0);
+        misses.set(0);
+        evictions.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "hits " + getHits() + " misses " + getMisses() + " evictions " + getEvictions();
+    }
+
+}
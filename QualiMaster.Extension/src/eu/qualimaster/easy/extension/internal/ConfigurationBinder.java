@@ -0,0 +1,877 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.qualimaster.easy.extension.internal;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import eu.qualimaster.coordination.RepositoryConnector;
+import eu.qualimaster.coordination.RepositoryConnector.IPhase;
+import eu.qualimaster.coordination.RepositoryConnector.Models;
+import net.ssehub.easy.instantiation.rt.core.model.confModel.AdaptiveConfiguration;
+import net.ssehub.easy.varModel.confModel.Configuration;
+import net.ssehub.easy.varModel.confModel.IDecisionVariable;
+import net.ssehub.easy.varModel.model.values.Value;
+
+/**
+ * Binds runtime values to a single {@link Configuration}. Values are bound directly via the compiled resolution
+ * information of {@link IvmlElementIdentifier}, IDs that cannot be resolved that way are handed over to the 
+ * generic {@link AdaptiveConfiguration} mechanism. In delta binding mode, the binder remembers the last value
+ * bound for each key and only assigns keys with changed values. If configured, changed numeric values are smoothed 
+ * before binding, see {@link ObservableSmoothing}. Keys of pipelines being profiled are dropped before any resolution.
+ * If configured, keys are bound in the order of their {@link BindingPriorities priorities}. Alternatively, keys can 
+ * be resolved and converted in parallel per pipeline using {@link BindingShard shards}. The converted values 
+ * are assigned afterwards on the calling thread, followed by the keys that do not belong to a pipeline. If 
+ * enabled, the observed (unsmoothed) numeric values of a successful binding are recorded in the 
+ * {@link ObservableHistory} and the applied values in the {@link BindingJournal}.
+ * Bindings are serialized per binder instance, i.e., bindings to different configurations can be performed in 
+ * parallel. Readers may {@link #lockReading() lock} a consistent state, i.e., not while a binding is being 
+ * published. This is a lock shared by readers and the publishing binding rather than a snapshot, i.e., readers 
+ * work on the live configuration, wait for a binding being published and delay the next publication. Readers that 
+ * do not lock may observe a partially published binding. In staged mode, values are resolved and converted first 
+ * and published at once afterwards, i.e., readers are blocked only for the assignment of the converted values. 
+ * After model updates, the resolution structures can be {@link #rebuild() rebuilt} while the previous ones continue 
+ * serving bindings.
+ */
+class ConfigurationBinder {
+
+    private Configuration config;
+    private IPhase phase;
+    private IvmlElementIdentifier identifier;
+    private AdaptiveConfiguration<IvmlElementIdentifier.ObservableTuple> aConfig;
+    private ObservableKeys keys = new ObservableKeys(IvmlElementIdentifier.getKeyLimit());
+    private Object[] lastValues = new Object[0]; // indexed by keys
+    private ObservableSmoothing.Smoother smoother = new ObservableSmoothing.Smoother();
+    private ReentrantReadWriteLock publishLock = new ReentrantReadWriteLock();
+    private volatile long version;
+    private Map<String, Object> deferred = new HashMap<String, Object>();
+    private Map<String, BindingShard> shards = new HashMap<String, BindingShard>();
+    private Map<IDecisionVariable, Long> contributions = new HashMap<IDecisionVariable, Long>();
+    private volatile long digest;
+    private boolean retired; // modified under this and the publishing lock
+    private IntLruCache<BindingPriorities.Priority> priorities = new IntLruCache<BindingPriorities.Priority>(
+        IvmlElementIdentifier.getCacheCapacity(), BindingPriorities.getCacheStatistics());
+    private long prioritiesVersion = -1;
+
+    /**
+     * The state of a single binding.
+     */
+    private class Binding {
+        
+        private BindingResult result;
+        private boolean delta;
+        private boolean smoothing = ObservableSmoothing.isEnabled();
+        private boolean profiling = IvmlElementIdentifier.isProfilingActive();
+        private boolean recording;
+        private int[] recordIds;
+        private double[] recordValues;
+        private int recorded;
+        private boolean journaling;
+        private int[] journalIds;
+        private Object[] journalValues;
+        private int journaled;
+        private List<IvmlElementIdentifier.StagedValue> staging;
+        private Map<String, Object> unresolved;
+        private boolean sharding;
+        private List<BindingShard> active;
+        private Map<String, Object> serial;
+        
+        /**
+         * Creates a binding state.
+         * 
+         * @param result the result to collect information in
+         * @param delta whether only changed values shall be bound
+         * @param staging the staged values, <b>null</b> for immediate assignment
+         * @param sharding whether values of pipelines shall be collected in {@link BindingShard shards} rather than 
+         *     being bound directly
+         * @param recording whether numeric values shall be collected for the {@link ObservableHistory}
+         * @param journaling whether the applied values shall be collected for the {@link BindingJournal}
+         */
+        private Binding(BindingResult result, boolean delta, List<IvmlElementIdentifier.StagedValue> staging, 
+            boolean sharding, boolean recording, boolean journaling) {
+            this.result = result;
+            this.delta = delta;
+            this.staging = staging;
+            this.sharding = sharding;
+            this.recording = recording;
+            if (recording) {
+                recordIds = new int[result.getKeyCount()];
+                recordValues = new double[recordIds.length];
+            }
+            this.journaling = journaling;
+            if (journaling) {
+                journalIds = new int[result.getKeyCount()];
+                journalValues = new Object[journalIds.length];
+            }
+            if (sharding) {
+                active = new ArrayList<BindingShard>();
+                serial = new HashMap<String, Object>();
+            }
+        }
+        
+        /**
+         * Binds a single value. Values that cannot be bound directly are collected in {@link #unresolved}. If
+         * sharding, values of pipelines are added to the respective shard and all other values to {@link #serial}.
+         * 
+         * @param key the observable key
+         * @param value the value
+         */
+        private void bind(String key, Object value) {
+            int id = keys.intern(key);
+            if (profiling && IvmlElementIdentifier.isProfiling(keys.getPipeline(id))) {
+                result.profiling(); // observations of profiling runs shall not cost binding time
+            } else {
+                if (recording && value instanceof Number) {
+                    recordIds[recorded] = id;
+                    recordValues[recorded++] = ((Number) value).doubleValue();
+                }
+                if (delta && isUnchanged(id, value)) { // observed value, smoothed values hardly ever repeat
+                    result.skipped();
+                } else if (null == value) {
+                    addUnresolved(key, value);
+                } else if (smoothing && value instanceof Double && smoother.isSmoothed(id, key, identifier)) {
+                    bindSmoothed(key, id, smoother.smooth(id, (Double) value));
+                } else if (sharding) {
+                    journal(id, value);
+                    dispatch(id, value);
+                } else {
+                    journal(id, value);
+                    if (!identifier.bindValue(id, value, staging)) {
+                        addUnresolved(key, value);
+                    }
+                }
+            }
+        }
+        
+        /**
+         * Binds a smoothed numeric value. The value is only boxed if it is handed over to a shard, the journal or 
+         * the generic mechanism.
+         * 
+         * @param key the observable key
+         * @param id the {@link ObservableKeys int-coded} <code>key</code>
+         * @param value the smoothed value
+         */
+        private void bindSmoothed(String key, int id, double value) {
+            if (sharding || journaling) {
+                Object boxed = value;
+                journal(id, boxed);
+                if (sharding) {
+                    dispatch(id, boxed);
+                } else if (!identifier.bindValue(id, boxed, staging)) {
+                    addUnresolved(key, boxed);
+                }
+            } else if (!identifier.bindValue(id, value, staging)) {
+                addUnresolved(key, value);
+            }
+        }
+        
+        /**
+         * Collects a value to be applied for the {@link BindingJournal}.
+         * 
+         * @param key the {@link ObservableKeys int-coded} observable key
+         * @param value the value
+         */
+        private void journal(int key, Object value) {
+            if (journaling) {
+                journalIds[journaled] = key;
+                journalValues[journaled++] = value;
+            }
+        }
+        
+        /**
+         * Adds a value to the shard of its pipeline or, if it does not belong to a pipeline, to {@link #serial}.
+         * 
+         * @param key the {@link ObservableKeys int-coded} observable key
+         * @param value the value
+         */
+        private void dispatch(int key, Object value) {
+            String pipeline = keys.getPipeline(key);
+            if (null == pipeline) {
+                serial.put(keys.getKey(key), value);
+            } else {
+                BindingShard shard = shards.get(pipeline);
+                if (null == shard) {
+                    shard = new BindingShard(config, phase, keys);
+                    shards.put(pipeline, shard);
+                }
+                if (!shard.hasValues()) {
+                    shard.start();
+                    active.add(shard);
+                }
+                shard.add(key, value);
+            }
+        }
+        
+        /**
+         * Resolves and converts the values collected in the active shards in parallel and, afterwards, binds the 
+         * {@link #serial} values. Unless staging, the values converted by the shards are assigned on the calling 
+         * thread before binding the serial values.
+         * 
+         * @param pool the worker pool
+         */
+        private void bindSharded(ExecutorService pool) {
+            List<Future<Void>> futures = new ArrayList<Future<Void>>(active.size());
+            for (int a = 0; a < active.size(); a++) {
+                BindingShard shard = active.get(a);
+                try {
+                    futures.add(pool.submit(shard));
+                } catch (RejectedExecutionException e) { // pool replaced meanwhile, bind on this thread
+                    shard.call();
+                }
+            }
+            boolean interrupted = false;
+            for (int f = 0; f < futures.size(); f++) {
+                boolean done = false;
+                while (!done) {
+                    try {
+                        futures.get(f).get();
+                        done = true;
+                    } catch (InterruptedException e) {
+                        interrupted = true; // shards use the binder structures, wait for them anyway
+                    } catch (ExecutionException e) {
+                        Bundle.getLogger(ConfigurationBinder.class).warn("While binding in parallel: " 
+                            + e.getCause().getMessage());
+                        done = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (null == staging) { // shards only resolve and convert, assign serially under the binder locks
+                for (int a = 0; a < active.size(); a++) {
+                    active.get(a).applyStaged();
+                }
+            }
+            for (int a = 0; a < active.size(); a++) {
+                Map<String, Object> shardUnresolved = active.get(a).getUnresolved();
+                for (Map.Entry<String, Object> entry : shardUnresolved.entrySet()) {
+                    addUnresolved(entry.getKey(), entry.getValue());
+                }
+            }
+            for (Map.Entry<String, Object> entry : serial.entrySet()) {
+                if (!identifier.bindValue(entry.getKey(), entry.getValue(), staging)) {
+                    addUnresolved(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        
+        /**
+         * Assigns the staged values of this binding and of the active shards.
+         */
+        private void applyStaged() {
+            if (sharding) {
+                for (int a = 0; a < active.size(); a++) {
+                    active.get(a).applyStaged();
+                }
+            }
+            identifier.applyStaged(staging);
+        }
+        
+        /**
+         * Finishes this binding, i.e., adds the variables changed by the active shards to <code>changed</code> and
+         * resets the shards.
+         * 
+         * @param changed the changed variables (modified as a side effect)
+         */
+        private void finish(Set<IDecisionVariable> changed) {
+            if (sharding) {
+                for (int a = 0; a < active.size(); a++) {
+                    BindingShard shard = active.get(a);
+                    changed.addAll(shard.getChanged());
+                    shard.start(); // release values
+                }
+            }
+        }
+        
+        /**
+         * Records the collected numeric values in the {@link ObservableHistory} and the applied values in the 
+         * {@link BindingJournal}, i.e., without values of keys that cannot be resolved. Call only if the binding 
+         * succeeded.
+         * 
+         * @param snapshot the values passed in for binding
+         * @param timestamp the timestamp of <code>snapshot</code> in milliseconds
+         */
+        private void record(Map<String, ?> snapshot, long timestamp) {
+            if (recording) {
+                String[] recordKeys = new String[recorded];
+                int count = 0;
+                for (int r = 0; r < recorded; r++) {
+                    int id = recordIds[r];
+                    if (isResolvable(id)) {
+                        recordKeys[count] = keys.getKey(id);
+                        recordValues[count++] = recordValues[r];
+                    }
+                }
+                ObservableHistory.record(snapshot, recordKeys, recordValues, count, timestamp);
+            }
+            if (journaling) {
+                String[] journalKeys = new String[journaled];
+                int count = 0;
+                for (int j = 0; j < journaled; j++) {
+                    int id = journalIds[j];
+                    if (isResolvable(id)) {
+                        journalKeys[count] = keys.getKey(id);
+                        journalValues[count++] = journalValues[j];
+                    }
+                }
+                BindingJournal.record(snapshot, timestamp, journalKeys, journalValues, count);
+            }
+        }
+        
+        /**
+         * Returns whether an observable key is not known to be unresolvable by the identifier binding it, i.e., the 
+         * identifier of this binder or of the shard of the respective pipeline.
+         * 
+         * @param id the {@link ObservableKeys int-coded} observable key
+         * @return <code>false</code> if resolving the key failed, <code>true</code> else
+         */
+        private boolean isResolvable(int id) {
+            BindingShard shard = sharding ? shards.get(keys.getPipeline(id)) : null;
+            return null == shard ? identifier.isResolvable(id) : shard.isResolvable(id);
+        }
+        
+        /**
+         * Records a value that cannot be bound directly.
+         * 
+         * @param key the observable key
+         * @param value the value
+         */
+        private void addUnresolved(String key, Object value) {
+            if (null == unresolved) {
+                unresolved = new HashMap<String, Object>();
+            }
+            unresolved.put(key, value);
+        }
+        
+    }
+    
+    /**
+     * Creates a binder for the given configuration.
+     * 
+     * @param config the configuration to bind values to
+     */
+    ConfigurationBinder(Configuration config) {
+        this(config, RepositoryConnector.getPhase(Thread.currentThread()));
+    }
+
+    /**
+     * Creates a binder for the given configuration.
+     * 
+     * @param config the configuration to bind values to
+     * @param phase the phase the configuration belongs to, may be <b>null</b> if unknown
+     */
+    ConfigurationBinder(Configuration config, IPhase phase) {
+        this.config = config;
+        this.phase = phase;
+        long start = System.nanoTime();
+        identifier = new IvmlElementIdentifier(config, keys);
+        aConfig = new AdaptiveConfiguration<>(config, identifier);
+        BindingMetrics.INSTANCE.recordIdentifierBuild(System.nanoTime() - start);
+    }
+    
+    /**
+     * Returns whether the configuration of this binder is still the configuration of the models of the phase this
+     * binder was created in, i.e., whether the binder is still in use after a model update.
+     * 
+     * @return <code>true</code> if the configuration is current or the phase is unknown, <code>false</code> else
+     */
+    boolean isCurrent() {
+        boolean result = true;
+        if (null != phase) {
+            Models models = RepositoryConnector.getModels(phase);
+            result = null != models && models.getConfiguration() == config;
+        }
+        return result;
+    }
+    
+    /**
+     * Returns the phase this binder was created in.
+     * 
+     * @return the phase, <b>null</b> if unknown
+     */
+    IPhase getPhase() {
+        return phase;
+    }
+    
+    /**
+     * Retires this binder, e.g., before unregistering it. Waits for a running binding and for running readers. 
+     * Afterwards, bindings and readers are rejected so that a replacement binder for the same configuration never 
+     * binds concurrently to this binder.
+     */
+    synchronized void retire() {
+        publishLock.writeLock().lock();
+        retired = true;
+        publishLock.writeLock().unlock();
+    }
+    
+    /**
+     * Rebuilds the resolution structures of this binder, e.g., after a model update. The new structures are built 
+     * on the calling thread while the current ones continue serving bindings and are swapped in when complete. 
+     * Remembered values of the delta binding mode are discarded, i.e., the next binding assigns all values.
+     */
+    void rebuild() {
+        IPhase before = RepositoryConnector.getPhase(Thread.currentThread()); // runs on a shared thread
+        if (null != phase) {
+            RepositoryConnector.associatePhase(Thread.currentThread(), phase); // for pipeline information
+        }
+        long start = System.nanoTime();
+        try {
+            ObservableKeys newKeys = new ObservableKeys(IvmlElementIdentifier.getKeyLimit()); // recycle the ids
+            IvmlElementIdentifier newIdentifier = new IvmlElementIdentifier(config, newKeys);
+            newIdentifier.prepare();
+            AdaptiveConfiguration<IvmlElementIdentifier.ObservableTuple> newAConfig 
+                = new AdaptiveConfiguration<>(config, newIdentifier);
+            List<String> sharded;
+            synchronized (this) {
+                sharded = new ArrayList<String>(shards.keySet());
+            }
+            // pipelines bound in parallel so far
+            Map<String, BindingShard> newShards = createShards(sharded, newKeys);
+            synchronized (this) {
+                keys = newKeys;
+                priorities.clear();
+                smoother.clear();
+                identifier = newIdentifier;
+                aConfig = newAConfig;
+                shards = newShards; // further shards are created on demand
+                contributions = new HashMap<IDecisionVariable, Long>();
+                digest = mix(digest + 1); // new epoch, variables may have been replaced
+                lastValues = new Object[0];
+            }
+        } finally {
+            RepositoryConnector.associatePhase(Thread.currentThread(), before);
+        }
+        BindingMetrics.INSTANCE.recordRebuild(System.nanoTime() - start);
+    }
+    
+    /**
+     * Warms up the resolution structures of this binder so that the first binding does not need to build them.
+     * 
+     * @param dryRun whether the current values shall also be converted (without changing the configuration)
+     * @return the number of resolved observable IDs
+     * @see IvmlElementIdentifier#warmUp(boolean)
+     */
+    synchronized int warmUp(boolean dryRun) {
+        int result = identifier.warmUp(dryRun);
+        if (BindValuesInstantiator.isParallelBinding()) {
+            List<String> pipelines = identifier.getPipelineNames();
+            pipelines.removeAll(shards.keySet());
+            shards.putAll(createShards(pipelines, keys));
+        }
+        return result;
+    }
+    
+    /**
+     * Creates warmed up {@link BindingShard shards} for the given pipelines. Requires the phase of the 
+     * configuration to be associated with the calling thread.
+     * 
+     * @param pipelines the names of the pipelines
+     * @param keys the int-coded observable keys to be used by the shards
+     * @return the shards per pipeline name
+     */
+    private Map<String, BindingShard> createShards(List<String> pipelines, ObservableKeys keys) {
+        Map<String, BindingShard> result = new HashMap<String, BindingShard>();
+        for (int p = 0, end = pipelines.size(); p < end; p++) {
+            String pipeline = pipelines.get(p);
+            BindingShard shard = new BindingShard(config, phase, keys);
+            shard.warmUp(pipeline);
+            result.put(pipeline, shard);
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the {@link ObservableKeys} of this binder if the number of distinct observable keys exceeded 
+     * the {@link IvmlElementIdentifier#getKeyLimit() limit}, e.g., as pipelines with new names were started over 
+     * time. Clears all structures indexed by the previous keys, i.e., the next binding resolves and binds all values.
+     */
+    private void recycleKeys() {
+        keys = new ObservableKeys(IvmlElementIdentifier.getKeyLimit());
+        identifier.setKeys(keys);
+        for (BindingShard shard : shards.values()) {
+            shard.setKeys(keys);
+        }
+        priorities.clear();
+        smoother.clear();
+        lastValues = new Object[0];
+    }
+
+    /**
+     * Invalidates the cached information of this binder related to <code>pipeline</code>, e.g., as the pipeline 
+     * is being started.
+     * 
+     * @param pipeline the name of the pipeline
+     * @see IvmlElementIdentifier#invalidatePipeline(String)
+     */
+    synchronized void invalidatePipeline(String pipeline) {
+        identifier.invalidatePipeline(pipeline);
+        BindingShard shard = shards.get(pipeline);
+        if (null != shard) {
+            shard.invalidatePipeline(pipeline);
+        }
+    }
+
+    /**
+     * Binds the given values to the configuration.
+     * 
+     * @param bindings The new values to set in form of <code>&lt;id for a (nested) variable, value&gt;</code>
+     * @param delta whether only changed values shall be bound
+     * @param staged whether all values shall be resolved and converted first and then be published at once, i.e., 
+     *     the publishing lock is only held for assigning the values rather than for the whole binding
+     * @param pool the worker pool to bind the values of different pipelines in parallel, <b>null</b> for binding 
+     *     all values on the calling thread. Ignored if {@link BindingPriorities} are enabled.
+     * @param timestamp the time in milliseconds <code>bindings</code> were taken at, recorded in the 
+     *     {@link ObservableHistory} and the {@link BindingJournal}. Negative for not recording the values, e.g., 
+     *     when replaying them.
+     * @return the binding result, <b>null</b> if this binder is {@link #retire() retired} and the binding shall be 
+     *     performed by the binder replacing this binder
+     * @throws IllegalStateException if the calling thread {@link #lockReading() reads} the configuration, as the 
+     *     binding would dead-lock
+     */
+    BindingResult bind(Map<String, ?> bindings, boolean delta, boolean staged, ExecutorService pool, 
+        long timestamp) {
+        checkNotReading(); // before waiting for a binding of another thread, which may wait for this reader
+        BindingResult result;
+        synchronized (this) {
+            result = retired ? null : doBind(bindings, delta, staged, pool, timestamp);
+        }
+        return result;
+    }
+    
+    /**
+     * Checks that the calling thread does not {@link #lockReading() read} the configuration, i.e., that it can 
+     * publish values without dead-locking.
+     * 
+     * @throws IllegalStateException if the calling thread reads the configuration
+     */
+    private void checkNotReading() {
+        if (publishLock.getReadHoldCount() > 0) {
+            throw new IllegalStateException("Cannot bind values while reading the configuration consistently");
+        }
+    }
+
+    /**
+     * Binds the given values to the configuration.
+     * 
+     * @param bindings The new values to set in form of <code>&lt;id for a (nested) variable, value&gt;</code>
+     * @param delta whether only changed values shall be bound
+     * @param staged whether all values shall be resolved and converted first and then be published at once
+     * @param pool the worker pool to bind the values of different pipelines in parallel, <b>null</b> for binding 
+     *     all values on the calling thread
+     * @param timestamp the time in milliseconds <code>bindings</code> were taken at, negative for not recording 
+     *     the values in the {@link ObservableHistory} and the {@link BindingJournal}
+     * @return the binding result
+     * @see #bind(Map, boolean, boolean, ExecutorService, long)
+     */
+    private BindingResult doBind(Map<String, ?> bindings, boolean delta, boolean staged, ExecutorService pool, 
+        long timestamp) {
+        long start = System.nanoTime();
+        if (keys.isExhausted()) {
+            recycleKeys();
+        }
+        Map<String, ?> toBind = bindings;
+        if (!deferred.isEmpty()) { // bind deferred values unless there are new ones
+            Map<String, Object> tmp = deferred;
+            tmp.putAll(bindings);
+            deferred = new HashMap<String, Object>();
+            toBind = tmp;
+        }
+        boolean prioritizing = BindingPriorities.isEnabled();
+        Binding binding = new Binding(new BindingResult(toBind.size()), delta, staged ? 
+            new ArrayList<IvmlElementIdentifier.StagedValue>(toBind.size()) : null, null != pool && !prioritizing, 
+            timestamp >= 0 && ObservableHistory.isEnabled(), timestamp >= 0 && BindingJournal.isEnabled());
+        Set<IDecisionVariable> changed = new HashSet<IDecisionVariable>();
+        identifier.collectChanges(changed); // also for assignments via aConfig
+        int unmapped = getUnmappedCount();
+        long takeoverStart = 0;
+        if (!staged) {
+            publishLock.writeLock().lock();
+        }
+        try {
+            if (prioritizing) {
+                bindPrioritized(toBind, binding, start);
+            } else {
+                for (Map.Entry<String, ?> entry : toBind.entrySet()) {
+                    binding.bind(entry.getKey(), entry.getValue());
+                }
+                if (binding.sharding) {
+                    binding.bindSharded(pool);
+                }
+            }
+            takeoverStart = System.nanoTime();
+            if (staged) {
+                publishLock.writeLock().lock();
+                binding.applyStaged();
+            }
+            if (null != binding.unresolved) {
+                aConfig.addValues(binding.unresolved);
+                // Will change the configuration as a side effect
+                aConfig.takeOverValues();
+            }
+            version++;
+        } finally {
+            identifier.collectChanges(null);
+            binding.finish(changed);
+            if (publishLock.isWriteLockedByCurrentThread()) {
+                publishLock.writeLock().unlock();
+            }
+        }
+        long end = System.nanoTime();
+        binding.result.setChangedVariables(changed);
+        updateDigest(changed);
+        binding.record(bindings, timestamp);
+        BindingMetrics.INSTANCE.recordBinding(binding.result, getUnmappedCount() - unmapped, 
+            end - start, end - takeoverStart);
+        return binding.result;
+    }
+    
+    /**
+     * Writes a snapshot of the runtime-assigned values of the configuration, including derived slots and mapped 
+     * runtime instances of algorithms. As bindings are serialized per binder, the snapshot is consistent.
+     * 
+     * @param out the output stream
+     * @return the number of written variables
+     * @throws IOException if writing fails
+     * @see BindingSnapshot
+     */
+    synchronized int writeSnapshot(DataOutputStream out) throws IOException {
+        return BindingSnapshot.write(config, out);
+    }
+
+    /**
+     * Restores a snapshot into the configuration. Readers do not observe a partially restored state. Restored 
+     * values are runtime-assigned, i.e., part of further snapshots.
+     * 
+     * @param in the input stream
+     * @return the number of restored variables, <code>-1</code> if this binder is {@link #retire() retired} and the 
+     *     snapshot shall be restored by the binder replacing this binder
+     * @throws IOException if reading fails
+     * @throws IllegalStateException if the calling thread {@link #lockReading() reads} the configuration, as 
+     *     restoring would dead-lock
+     * @see BindingSnapshot
+     */
+    int restoreSnapshot(DataInputStream in) throws IOException {
+        checkNotReading();
+        int result = -1;
+        synchronized (this) {
+            if (!retired) {
+                Set<IDecisionVariable> restored;
+                publishLock.writeLock().lock();
+                try {
+                    restored = BindingSnapshot.read(config, in);
+                    version++;
+                } finally {
+                    publishLock.writeLock().unlock();
+                }
+                updateDigest(restored);
+                lastValues = new Object[0]; // values may differ from the last bound ones
+                result = restored.size();
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Returns the digest of the bound state, i.e., a rolling XOR over the values of all variables changed by 
+     * bindings since the last rebuild. Equal digests indicate (with high probability) that no binding changed a 
+     * value in between, e.g., to skip reasoning. Changes made by other means than binding are not reflected.
+     * 
+     * @return the digest
+     */
+    long getDigest() {
+        return digest;
+    }
+    
+    /**
+     * Updates the digest for the given changed variables. Only the contributions of changed variables are 
+     * replaced, i.e., the costs depend on the number of changes rather than on the size of the configuration.
+     * 
+     * @param changed the changed variables
+     */
+    private void updateDigest(Set<IDecisionVariable> changed) {
+        long tmp = digest;
+        for (IDecisionVariable variable : changed) {
+            Value value = variable.getValue();
+            Object object = null == value ? null : value.getValue();
+            long contribution = mix(((long) System.identityHashCode(variable) << 32) 
+                ^ (null == object ? 0 : object.hashCode() & 0xFFFFFFFFL));
+            Long old = contributions.put(variable, contribution);
+            if (null != old) {
+                tmp ^= old;
+            }
+            tmp ^= contribution;
+        }
+        digest = BindValuesInstantiator.NO_DIGEST == tmp ? 0 : tmp; // reserved for unknown digests
+    }
+    
+    /**
+     * Mixes the bits of <code>value</code> so that similar inputs lead to different outputs (SplitMix64 finalizer).
+     * 
+     * @param value the value to mix
+     * @return the mixed value
+     */
+    private static long mix(long value) {
+        long result = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        result = (result ^ (result >>> 27)) * 0x94D049BB133111EBL;
+        return result ^ (result >>> 31);
+    }
+    
+    /**
+     * Returns the number of values skipped so far as their observable IDs cannot be resolved, including the 
+     * values skipped by shards.
+     * 
+     * @return the number of unmapped values
+     */
+    private int getUnmappedCount() {
+        int result = identifier.getUnmappedCount();
+        for (BindingShard shard : shards.values()) {
+            result += shard.getUnmappedCount();
+        }
+        return result;
+    }
+    
+    /**
+     * Binds the given values in the order of their {@link BindingPriorities priorities}. Low priority values that 
+     * exceed the time budget are deferred to the next binding.
+     * 
+     * @param bindings the values to bind
+     * @param binding the binding state
+     * @param start the start time of the binding in nanoseconds
+     */
+    private void bindPrioritized(Map<String, ?> bindings, Binding binding, long start) {
+        long version = BindingPriorities.getVersion(); // before resolving, i.e., stale entries are dropped next time
+        if (version != prioritiesVersion) {
+            priorities.clear();
+            prioritiesVersion = version;
+        }
+        List<String> normal = new ArrayList<String>();
+        List<String> low = new ArrayList<String>();
+        for (Map.Entry<String, ?> entry : bindings.entrySet()) {
+            String key = entry.getKey();
+            switch (getPriority(key)) {
+            case HIGH:
+                binding.bind(key, entry.getValue());
+                break;
+            case LOW:
+                low.add(key);
+                break;
+            default:
+                normal.add(key);
+                break;
+            }
+        }
+        for (int n = 0, end = normal.size(); n < end; n++) {
+            String key = normal.get(n);
+            binding.bind(key, bindings.get(key));
+        }
+        long budget = BindingPriorities.getTimeBudget();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(budget);
+        for (int l = 0, end = low.size(); l < end; l++) {
+            String key = low.get(l);
+            if (budget > 0 && System.nanoTime() > deadline) {
+                deferred.put(key, bindings.get(key));
+                binding.result.deferred();
+            } else {
+                binding.bind(key, bindings.get(key));
+            }
+        }
+    }
+    
+    /**
+     * Returns the priority of an observable key from the priority cache of this binder. Resolves and caches the 
+     * priority if not cached.
+     * 
+     * @param key the observable key
+     * @return the priority
+     * @see BindingPriorities#getPriority(String)
+     */
+    private BindingPriorities.Priority getPriority(String key) {
+        int id = keys.intern(key);
+        BindingPriorities.Priority result = priorities.get(id);
+        if (null == result) {
+            result = BindingPriorities.getPriority(key);
+            priorities.put(id, result);
+        }
+        return result;
+    }
+    
+    /**
+     * Locks the configuration for reading a consistent state, i.e., no binding is published until 
+     * {@link #unlockReading()} is called. Must not bind values to the same configuration meanwhile as this would 
+     * dead-lock, i.e., such bindings are rejected.
+     * 
+     * @return <code>true</code> if locked, <code>false</code> if this binder is {@link #retire() retired} and the 
+     *     binder replacing this binder shall be locked instead
+     */
+    boolean lockReading() {
+        publishLock.readLock().lock();
+        boolean result = !retired;
+        if (!result) {
+            publishLock.readLock().unlock();
+        }
+        return result;
+    }
+    
+    /**
+     * Unlocks the configuration after {@link #lockReading() reading}.
+     */
+    void unlockReading() {
+        publishLock.readLock().unlock();
+    }
+    
+    /**
+     * Returns the version of the configuration state, i.e., the number of bindings published so far. Allows readers 
+     * to detect whether the state changed since the last reading.
+     * 
+     * @return the version
+     */
+    long getVersion() {
+        return version;
+    }
+    
+    /**
+     * Returns whether <code>value</code> is the same as bound last time for <code>key</code>. Remembers 
+     * <code>value</code> for the next binding.
+     * 
+     * @param key the {@link ObservableKeys int-coded} key
+     * @param value the value
+     * @return <code>true</code> if unchanged, <code>false</code> else
+     */
+    private boolean isUnchanged(int key, Object value) {
+        if (key >= lastValues.length) {
+            lastValues = Arrays.copyOf(lastValues, Math.max(key + 1, keys.size()));
+        }
+        Object last = lastValues[key];
+        lastValues[key] = value;
+        return null != last && last.equals(value);
+    }
+
+}
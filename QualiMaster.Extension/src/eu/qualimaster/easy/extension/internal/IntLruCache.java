@@ -0,0 +1,322 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.qualimaster.easy.extension.internal;
+
+import java.util.Arrays;
+
+/**
+ * A bounded cache for int keys, e.g., {@link ObservableKeys int-coded observable keys}, evicting the least 
+ * recently used entry if the capacity is exceeded. Entries are stored in parallel arrays of slots, i.e., without 
+ * boxing or entry objects, which are located via an open-addressing hash table with linear probing. Slots are 
+ * allocated on demand and are kept dense, i.e., the memory is bounded by the capacity rather than by the largest 
+ * key. The recency order is maintained as doubly linked list over the slots. Hits, misses and evictions are 
+ * recorded in the given {@link CacheStatistics}. Not thread-safe.
+ * 
+ * @param <V> the value type
+ */
+public class IntLruCache<V> {
+
+    private static final int NONE = -1;
+    private static final int INITIAL_SLOTS = 64;
+    private int capacity;
+    private CacheStatistics statistics;
+    private int[] table; // slot per bucket, NONE if empty
+    private int mask;
+    private int[] keys; // per slot
+    private Object[] values;
+    private int[] prev;
+    private int[] next;
+    private int head = NONE; // most recently used slot
+    private int tail = NONE; // least recently used slot
+    private int size;
+
+    /**
+     * Creates a cache.
+     * 
+     * @param capacity the maximum number of entries (at least 1)
+     * @param statistics the statistics to record hits, misses and evictions in
+     */
+    public IntLruCache(int capacity, CacheStatistics statistics) {
+        this.capacity = Math.max(1, capacity);
+        this.statistics = statistics;
+        clear();
+    }
+
+    /**
+     * Returns the value for <code>key</code> and marks it as most recently used.
+     * 
+     * @param key the key
+     * @return the value, <b>null</b> if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        V result = null;
+        int slot = table[findBucket(key)];
+        if (NONE == slot) {
+            statistics.miss();
+        } else {
+            statistics.hit();
+            result = (V) values[slot];
+            unlink(slot);
+            linkFirst(slot);
+        }
+        return result;
+    }
+
+    /**
+     * Stores <code>value</code> for <code>key</code> as most recently used entry. Evicts the least recently used 
+     * entry if the capacity is exceeded.
+     * 
+     * @param key the key
+     * @param value the value, <b>null</b> removes the entry
+     */
+    public void put(int key, V value) {
+        if (null == value) {
+            remove(key);
+        } else {
+            int slot = table[findBucket(key)];
+            if (NONE != slot) {
+                unlink(slot);
+            } else {
+                if (size == capacity) {
+                    statistics.evicted();
+                    removeSlot(tail);
+                }
+                ensureSlots();
+                slot = size++;
+                keys[slot] = key;
+                table[findBucket(key)] = slot;
+            }
+            values[slot] = value;
+            linkFirst(slot);
+        }
+    }
+
+    /**
+     * Removes the entry for <code>key</code>.
+     * 
+     * @param key the key
+     */
+    public void remove(int key) {
+        int slot = table[findBucket(key)];
+        if (NONE != slot) {
+            removeSlot(slot);
+        }
+    }
+
+    /**
+     * Returns the keys of all entries, most recently used first.
+     * 
+     * @return the keys
+     */
+    public int[] ids() {
+        int[] result = new int[size];
+        int pos = 0;
+        for (int slot = head; slot != NONE; slot = next[slot]) {
+            result[pos++] = keys[slot];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of entries.
+     * 
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the maximum number of entries.
+     * 
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of currently allocated entry slots, which never exceeds the {@link #getCapacity() capacity}.
+     * 
+     * @return the number of allocated slots
+     */
+    public int getAllocatedSlots() {
+        return keys.length;
+    }
+
+    /**
+     * Removes all entries and releases the allocated slots.
+     */
+    public void clear() {
+        keys = null;
+        size = 0;
+        head = NONE;
+        tail = NONE;
+        allocate(Math.min(capacity, INITIAL_SLOTS));
+    }
+
+    /**
+     * Allocates the slot arrays for <code>slots</code> entries and a hash table with a load factor of at most 0.5.
+     * Re-inserts the current entries.
+     * 
+     * @param slots the number of slots
+     */
+    private void allocate(int slots) {
+        int buckets = Integer.highestOneBit(Math.max(2, slots) * 2 - 1) * 2;
+        table = new int[buckets];
+        Arrays.fill(table, NONE);
+        mask = buckets - 1;
+        if (null == keys) {
+            keys = new int[slots];
+            values = new Object[slots];
+            prev = new int[slots];
+            next = new int[slots];
+        } else {
+            keys = Arrays.copyOf(keys, slots);
+            values = Arrays.copyOf(values, slots);
+            prev = Arrays.copyOf(prev, slots);
+            next = Arrays.copyOf(next, slots);
+            for (int s = 0; s < size; s++) {
+                table[findBucket(keys[s])] = s;
+            }
+        }
+    }
+
+    /**
+     * Enlarges the slot arrays up to the capacity if all slots are in use.
+     */
+    private void ensureSlots() {
+        if (size == keys.length) {
+            allocate(Math.min(capacity, 2 * keys.length));
+        }
+    }
+
+    /**
+     * Returns the home bucket of <code>key</code>.
+     * 
+     * @param key the key
+     * @return the bucket
+     */
+    private int hash(int key) {
+        int h = key * 0x9E3779B9; // spread dense keys
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Returns the bucket of <code>key</code>, i.e., the bucket holding its slot or the empty bucket where it 
+     * shall be inserted.
+     * 
+     * @param key the key
+     * @return the bucket
+     */
+    private int findBucket(int key) {
+        int bucket = hash(key);
+        while (NONE != table[bucket] && keys[table[bucket]] != key) {
+            bucket = (bucket + 1) & mask;
+        }
+        return bucket;
+    }
+
+    /**
+     * Removes the entry in <code>slot</code>. Moves the entry of the last slot into <code>slot</code> so that 
+     * the slots remain dense.
+     * 
+     * @param slot the slot
+     */
+    private void removeSlot(int slot) {
+        unlink(slot);
+        deleteBucket(findBucket(keys[slot]));
+        int last = --size;
+        if (slot != last) {
+            keys[slot] = keys[last];
+            values[slot] = values[last];
+            prev[slot] = prev[last];
+            next[slot] = next[last];
+            if (NONE == prev[slot]) {
+                head = slot;
+            } else {
+                next[prev[slot]] = slot;
+            }
+            if (NONE == next[slot]) {
+                tail = slot;
+            } else {
+                prev[next[slot]] = slot;
+            }
+            table[findBucket(keys[slot])] = slot;
+        }
+        values[last] = null;
+    }
+
+    /**
+     * Empties <code>bucket</code> and shifts subsequent entries of the same probe sequence backwards so that 
+     * lookups do not need tombstones.
+     * 
+     * @param bucket the bucket
+     */
+    private void deleteBucket(int bucket) {
+        int hole = bucket;
+        table[hole] = NONE;
+        int b = (hole + 1) & mask;
+        while (NONE != table[b]) {
+            int home = hash(keys[table[b]]);
+            if (((b - home) & mask) >= ((b - hole) & mask)) { // hole is on the probe sequence of the entry
+                table[hole] = table[b];
+                table[b] = NONE;
+                hole = b;
+            }
+            b = (b + 1) & mask;
+        }
+    }
+
+    /**
+     * Links <code>slot</code> as most recently used entry.
+     * 
+     * @param slot the slot
+     */
+    private void linkFirst(int slot) {
+        prev[slot] = NONE;
+        next[slot] = head;
+        if (NONE != head) {
+            prev[head] = slot;
+        }
+        head = slot;
+        if (NONE == tail) {
+            tail = slot;
+        }
+    }
+
+    /**
+     * Unlinks <code>slot</code> from the recency order.
+     * 
+     * @param slot the slot
+     */
+    private void unlink(int slot) {
+        int p = prev[slot];
+        int n = next[slot];
+        if (NONE == p) {
+            head = n;
+        } else {
+            next[p] = n;
+        }
+        if (NONE == n) {
+            tail = p;
+        } else {
+            prev[n] = p;
+        }
+    }
+
+}
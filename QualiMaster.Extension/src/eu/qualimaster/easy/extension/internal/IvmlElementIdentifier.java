@@ -16,12 +16,14 @@
 package eu.qualimaster.easy.extension.internal;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.lang.StringUtils;
 
@@ -47,9 +49,12 @@ import net.ssehub.easy.varModel.model.ModelQueryException;
 import net.ssehub.easy.varModel.model.datatypes.BooleanType;
 import net.ssehub.easy.varModel.model.datatypes.IDatatype;
 import net.ssehub.easy.varModel.model.datatypes.IntegerType;
+import net.ssehub.easy.varModel.model.datatypes.RealType;
 import net.ssehub.easy.varModel.model.datatypes.TypeQueries;
 import net.ssehub.easy.varModel.model.values.BooleanValue;
 import net.ssehub.easy.varModel.model.values.ContainerValue;
+import net.ssehub.easy.varModel.model.values.IntValue;
+import net.ssehub.easy.varModel.model.values.RealValue;
 import net.ssehub.easy.varModel.model.values.Value;
 import net.ssehub.easy.varModel.model.values.ValueDoesNotMatchTypeException;
 import net.ssehub.easy.varModel.model.values.ValueFactory;
@@ -63,7 +68,11 @@ public class IvmlElementIdentifier extends AbstractVariableIdentifier<IvmlElemen
     implements PipelineVisitor.IVariableMapper {
 
     private static final String MAIN_PROJECT_ID = FrozenSystemState.INFRASTRUCTURE + FrozenSystemState.SEPARATOR;
-    private static final Set<String> PROFILING_PIPELINES =  new HashSet<String>();
+    private static final Set<String> PROFILING_PIPELINES = ConcurrentHashMap.newKeySet(); // handler vs. binding
+    private static final CacheStatistics SEGMENT_CACHE_STATISTICS = new CacheStatistics();
+    private static final CacheStatistics RESOLUTION_CACHE_STATISTICS = new CacheStatistics();
+    private static final AtomicLong RESOLUTION_FAILURES = new AtomicLong();
+    private static volatile int cacheCapacity = 10000;
     
     /**
      * Handles profiling lifecycle information.
@@ -83,10 +92,10 @@ public class IvmlElementIdentifier extends AbstractVariableIdentifier<IvmlElemen
         protected void handle(AlgorithmProfilingEvent event) {
             switch(event.getStatus()) {
             case START:
-                PROFILING_PIPELINES.add(event.getPipeline());
+                setProfiling(event.getPipeline(), true);
                 break;
             case END:
-                PROFILING_PIPELINES.remove(event.getPipeline());
+                setProfiling(event.getPipeline(), false);
                 break;
             default:
                 break;
@@ -99,6 +108,98 @@ public class IvmlElementIdentifier extends AbstractVariableIdentifier<IvmlElemen
         EventManager.register(new ProfilingEventHandler());
     }
     
+    /**
+     * Defines whether a pipeline is being profiled. Observations of profiled pipelines are dropped during binding. 
+     * Called automatically upon {@link AlgorithmProfilingEvent algorithm profiling events}.
+     * 
+     * @param pipeline the name of the pipeline
+     * @param profiling <code>true</code> if <code>pipeline</code> is being profiled, <code>false</code> else
+     */
+    public static void setProfiling(String pipeline, boolean profiling) {
+        if (profiling) {
+            PROFILING_PIPELINES.add(pipeline);
+        } else {
+            PROFILING_PIPELINES.remove(pipeline);
+        }
+    }
+    
+    /**
+     * Returns whether any pipeline is currently being profiled.
+     * 
+     * @return <code>true</code> if at least one pipeline is being profiled, <code>false</code> else
+     */
+    static boolean isProfilingActive() {
+        return !PROFILING_PIPELINES.isEmpty();
+    }
+    
+    /**
+     * Returns whether the given pipeline is currently being profiled.
+     * 
+     * @param pipeline the name of the pipeline, may be <b>null</b>
+     * @return <code>true</code> if <code>pipeline</code> is being profiled, <code>false</code> else
+     */
+    static boolean isProfiling(String pipeline) {
+        return null != pipeline && PROFILING_PIPELINES.contains(pipeline);
+    }
+    
+    /**
+     * Defines the maximum number of observable IDs for which split segments and resolution information are cached 
+     * per identifier. Least recently used entries are evicted first. Affects only identifiers created after calling 
+     * this method, e.g., after the next model update.
+     * 
+     * @param capacity the capacity (at least 1)
+     */
+    public static void setCacheCapacity(int capacity) {
+        cacheCapacity = Math.max(1, capacity);
+    }
+    
+    /**
+     * Returns the maximum number of observable IDs cached per identifier.
+     * 
+     * @return the capacity
+     */
+    public static int getCacheCapacity() {
+        return cacheCapacity;
+    }
+    
+    /**
+     * Returns the number of distinct observable IDs after which the int codes of the observable IDs shall be 
+     * recycled, i.e., the memory of structures indexed by them is bounded even if observable IDs keep changing.
+     * 
+     * @return the limit, four times the {@link #getCacheCapacity() cache capacity}
+     */
+    static int getKeyLimit() {
+        return 4 * cacheCapacity;
+    }
+    
+    /**
+     * Returns the statistics of the ID segment caches of all identifiers.
+     * 
+     * @return the statistics
+     */
+    public static CacheStatistics getSegmentCacheStatistics() {
+        return SEGMENT_CACHE_STATISTICS;
+    }
+
+    /**
+     * Returns the statistics of the resolution caches of all identifiers.
+     * 
+     * @return the statistics
+     */
+    public static CacheStatistics getResolutionCacheStatistics() {
+        return RESOLUTION_CACHE_STATISTICS;
+    }
+
+    /**
+     * Returns the number of recorded (and logged) resolution failures of all identifiers. As failures are cached, 
+     * an unresolvable observable ID is counted once until the next model update or the start of its pipeline.
+     * 
+     * @return the number of resolution failures
+     */
+    public static long getResolutionFailureCount() {
+        return RESOLUTION_FAILURES.get();
+    }
+    
     /**
      * Part of the iterator, stores which kind of observable/variable mapper shall be used.
      * @author El-Sharkawy
@@ -160,16 +261,111 @@ public class IvmlElementIdentifier extends AbstractVariableIdentifier<IvmlElemen
         }
     }
     
+    /**
+     * Denotes how an observed value is converted into an IVML value for a certain target variable.
+     */
+    private static enum ValueConversion {
+        ACTUAL_REFERENCE,
+        INTEGER,
+        REAL,
+        BOOLEAN,
+        DEFAULT;
+        
+        /**
+         * Returns the conversion for the given target type.
+         * 
+         * @param type the target type
+         * @return the conversion
+         */
+        private static ValueConversion select(IDatatype type) {
+            ValueConversion result;
+            if (IntegerType.TYPE.isAssignableFrom(type)) {
+                result = INTEGER;
+            } else if (RealType.TYPE.isAssignableFrom(type)) {
+                result = REAL;
+            } else if (BooleanType.TYPE.isAssignableFrom(type)) {
+                result = BOOLEAN;
+            } else {
+                result = DEFAULT;
+            }
+            return result;
+        }
+    }
+    
+    /**
+     * Compiled resolution information for an observable ID, i.e., the segments returned by 
+     * {@link IvmlElementIdentifier#getIDIterator(String)}, the (lazily resolved) target variable, the value 
+     * conversion for the target and the value override for {@link QmConstants#SLOT_ACTUAL}.
+     */
+    private static class ResolvedObservable {
+        
+        private String[] path;
+        private boolean nested;
+        private String actualValue;
+        private boolean resolved;
+        private IDecisionVariable target;
+        private ValueConversion conversion;
+        private String hint;
+        private String failure;
+        
+    }
+    
+    /**
+     * A converted value staged for assignment.
+     */
+    static class StagedValue {
+        
+        private String observableID;
+        private IDecisionVariable target;
+        private Value value;
+        
+        /**
+         * Creates a staged value.
+         * 
+         * @param observableID the observable ID the value was bound for
+         * @param target the target variable
+         * @param value the converted value
+         */
+        private StagedValue(String observableID, IDecisionVariable target, Value value) {
+            this.observableID = observableID;
+            this.target = target;
+            this.value = value;
+        }
+        
+    }
+    
+    private static final IDecisionVariable[] NO_TARGETS = new IDecisionVariable[0];
+    
+    private Configuration config;
+    private ObservableKeys keys;
     private List<IDecisionVariable> pipelines;
     private Map<String, PipelineContentsContainer> pipelineInfos;
-    private Map<String, List<String>> cachedIDSegments;
+    private IntLruCache<List<String>> cachedIDSegments; // indexed by ObservableKeys
+    private IntLruCache<ResolvedObservable> resolutionTable 
+        = new IntLruCache<ResolvedObservable>(cacheCapacity, RESOLUTION_CACHE_STATISTICS);
+    private Map<String, IDecisionVariable> topLevelVariables;
     private Map<IDecisionVariable, IDecisionVariable> varMapping = new HashMap<IDecisionVariable, IDecisionVariable>();
+    private Map<IDatatype, ValueConversion> conversions = new HashMap<IDatatype, ValueConversion>();
+    private Map<IDecisionVariable, IDecisionVariable[]> fanOut = new HashMap<IDecisionVariable, IDecisionVariable[]>();
+    private Set<IDecisionVariable> changed;
+    private int unmappedCount;
     
     /**
-     * Sole constructor for this class.
+     * Creates an identifier with its own {@link ObservableKeys}.
      * @param config The used configuration, needed to perform queries.
      */
     public IvmlElementIdentifier(Configuration config) {
+        this(config, new ObservableKeys(getKeyLimit()));
+    }
+
+    /**
+     * Creates an identifier sharing the {@link ObservableKeys} of its owner, e.g., a {@link ConfigurationBinder}.
+     * @param config The used configuration, needed to perform queries.
+     * @param keys the int-coded observable keys the caches of this identifier are indexed by
+     */
+    IvmlElementIdentifier(Configuration config, ObservableKeys keys) {
+        this.config = config;
+        this.keys = keys;
         pipelines = new ArrayList<>();
         
         for (IDecisionVariable variable : config) {
@@ -178,7 +374,7 @@ public class IvmlElementIdentifier extends AbstractVariableIdentifier<IvmlElemen
             }
         }
 
-        cachedIDSegments = new HashMap<>();
+        cachedIDSegments = new IntLruCache<>(cacheCapacity, SEGMENT_CACHE_STATISTICS);
         pipelineInfos = new HashMap<>();
     }
 
@@ -189,6 +385,169 @@ public class IvmlElementIdentifier extends AbstractVariableIdentifier<IvmlElemen
         }
     }
     
+    /**
+     * Builds the lazily initialized structures of this identifier in advance, i.e., the top-level variables and 
+     * the contents of all pipelines.
+     */
+    void prepare() {
+        getTopLevelVariables();
+        List<String> names = getPipelineNames();
+        for (int p = 0, end = names.size(); p < end; p++) {
+            getPipelineInfos(names.get(p));
+        }
+    }
+    
+    /**
+     * Returns the names of the pipelines in the configuration.
+     * 
+     * @return the names of the pipelines
+     */
+    List<String> getPipelineNames() {
+        List<String> result = new ArrayList<String>(pipelines.size());
+        for (int p = 0, end = pipelines.size(); p < end; p++) {
+            IDecisionVariable nameVar = pipelines.get(p).getNestedElement(QmConstants.SLOT_PIPELINE_NAME);
+            if (null != nameVar && null != nameVar.getValue() && null != nameVar.getValue().getValue()) {
+                result.add(nameVar.getValue().getValue().toString());
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Warms up this identifier, i.e., {@link #prepare() prepares} it and resolves the observable IDs of all mapped 
+     * slots of the top-level variables of the configuration as well as of the mapped runtime instances of 
+     * algorithms, data sources and data sinks of all pipelines, i.e., the IDs sent by the monitoring.
+     * 
+     * @param dryRun if <code>true</code>, also converts the current values of the resolved target variables and 
+     *     determines their derived slots without changing the configuration
+     * @return the number of resolved observable IDs
+     */
+    int warmUp(boolean dryRun) {
+        return warmUpPipeline(null, dryRun);
+    }
+
+    /**
+     * Warms up this identifier for the observable IDs of a single pipeline, e.g., for a {@link BindingShard}. 
+     * 
+     * @param pipeline the name of the pipeline, <b>null</b> for all observable IDs, see {@link #warmUp(boolean)}
+     * @param dryRun if <code>true</code>, also converts the current values of the resolved target variables and 
+     *     determines their derived slots without changing the configuration
+     * @return the number of resolved observable IDs
+     */
+    int warmUpPipeline(String pipeline, boolean dryRun) {
+        prepare();
+        int count = 0;
+        for (Map.Entry<String, IDecisionVariable> entry : getTopLevelVariables().entrySet()) {
+            String id = entry.getKey();
+            String prefix = id.substring(0, Math.max(0, id.indexOf(FrozenSystemState.SEPARATOR)));
+            boolean requested = null == pipeline || pipeline.equals(getPipelineName(id));
+            if (requested && id.startsWith(MAIN_PROJECT_ID)) { // infrastructure variables are observable IDs
+                count += warmUp(id, dryRun);
+            } else if (requested && !FrozenSystemState.ALGORITHM.equals(prefix) // runtime IDs are specific, below
+                && !FrozenSystemState.DATASOURCE.equals(prefix) && !FrozenSystemState.DATASINK.equals(prefix)) {
+                count += warmUp(id, entry.getValue(), false, dryRun);
+            }
+        }
+        for (Map.Entry<String, PipelineContentsContainer> entry : pipelineInfos.entrySet()) {
+            PipelineContentsContainer infos = entry.getValue();
+            if (null != infos && (null == pipeline || pipeline.equals(entry.getKey()))) {
+                String name = entry.getKey();
+                count += warmUp(name, infos, MappedInstanceType.ALGORITHM, FrozenSystemState.ALGORITHM, dryRun);
+                count += warmUp(name, infos, MappedInstanceType.SOURCE, FrozenSystemState.DATASOURCE, dryRun);
+                count += warmUp(name, infos, MappedInstanceType.SINK, FrozenSystemState.DATASINK, dryRun);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Warms up the observable IDs of the mapped runtime instances of a pipeline.
+     * 
+     * @param pipeline the name of the pipeline
+     * @param infos the contents of <code>pipeline</code>
+     * @param type the type of the mapped instances
+     * @param prefix the {@link FrozenSystemState} prefix of the observable IDs of <code>type</code>
+     * @param dryRun whether the current values shall also be converted
+     * @return the number of resolved observable IDs
+     */
+    private int warmUp(String pipeline, PipelineContentsContainer infos, MappedInstanceType type, String prefix, 
+        boolean dryRun) {
+        int count = 0;
+        for (Map.Entry<String, IDecisionVariable> mapped : infos.getMappedInstances(type).entrySet()) {
+            IDecisionVariable variable = mapped.getValue();
+            if (null != variable) { // mapping without instance
+                String id = prefix + FrozenSystemState.SEPARATOR + pipeline + FrozenSystemState.SEPARATOR 
+                    + mapped.getKey();
+                count += warmUp(id, variable, MappedInstanceType.ALGORITHM == type, dryRun);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Warms up the observable IDs for the mapped slots of <code>variable</code>.
+     * 
+     * @param id the ID of <code>variable</code> the observable names are appended to
+     * @param variable the variable
+     * @param isAlgorithm whether <code>variable</code> is an algorithm, i.e., has specific slot names
+     * @param dryRun whether the current values shall also be converted
+     * @return the number of resolved observable IDs
+     */
+    private int warmUp(String id, IDecisionVariable variable, boolean isAlgorithm, boolean dryRun) {
+        int count = 0;
+        for (int n = 0, end = variable.getNestedElementsCount(); n < end; n++) {
+            String slot = variable.getNestedElement(n).getDeclaration().getName();
+            String observable = isAlgorithm ? ObservableMapping.mapReverseAlgorithmObservable(slot) 
+                : ObservableMapping.mapReverseGeneralObservable(slot);
+            if (null != observable) {
+                count += warmUp(id + FrozenSystemState.SEPARATOR + observable, dryRun);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Warms up a single observable ID.
+     * 
+     * @param observableID the observable ID
+     * @param dryRun whether the current value shall also be converted
+     * @return <code>1</code> if <code>observableID</code> was resolved, <code>0</code> else
+     */
+    private int warmUp(String observableID, boolean dryRun) {
+        int result = 0;
+        ResolvedObservable resolved = resolve(observableID);
+        IDecisionVariable target = null;
+        if (null == resolved.failure && (!resolved.nested || null != resolved.path)) { // as for binding
+            target = getTarget(resolved, observableID);
+        }
+        if (null != target) {
+            result = 1;
+            if (dryRun) {
+                dryBind(target, resolved.conversion);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Performs the preparatory steps of a binding on <code>target</code> without changing the configuration, i.e.,
+     * converts the current value and determines the derived slots.
+     * 
+     * @param target the target variable
+     * @param conversion the conversion for <code>target</code>
+     */
+    private void dryBind(IDecisionVariable target, ValueConversion conversion) {
+        Value current = target.getValue();
+        if (null != current && null != current.getValue() && ValueConversion.ACTUAL_REFERENCE != conversion) {
+            try {
+                toIVMLValue(target, conversion, current.getValue());
+            } catch (ValueDoesNotMatchTypeException e) {
+                // just warming up, ignore
+            }
+        }
+        getFanOut(target);
+    }
+    
     /**
      * Returns the collected mappings for elements of the specified pipeline.
      * @param pipName The configured name of the pipeline.
@@ -243,72 +602,102 @@ public class IvmlElementIdentifier extends AbstractVariableIdentifier<IvmlElemen
     //  - nested: return variable (... nested variables) ... slot
     @Override
     protected Iterator<String> getIDIterator(final String observableID) {
-        final List<String> segments = splitID(observableID);
-        return new Iterator<String>() {
-            
-            private int index = 1;
-            private ObservableMappingType type = null;
-            private String slotOverride = null;
+        String[] path = resolve(observableID).path;
+        if (null == path) {
+            path = compilePath(observableID, splitID(observableID));
+        }
+        return Arrays.asList(path).iterator(); // remove is not supported
+    }
 
-            @Override
-            public boolean hasNext() {
-                return segments.size() > index;
-            }
+    /**
+     * Returns the compiled resolution information for <code>observableID</code>. The information is compiled 
+     * when the ID is requested for the first time and cached for this identifier instance, i.e., until the 
+     * identifier is discarded due to a model update.
+     * 
+     * @param observableID the observable ID
+     * @return the compiled resolution information
+     */
+    private ResolvedObservable resolve(String observableID) {
+        return resolve(keys.intern(observableID));
+    }
 
-            @Override
-            public String next() {
-                String id;
-                
+    /**
+     * Returns the compiled resolution information for an {@link ObservableKeys int-coded} observable ID.
+     * 
+     * @param key the int-coded observable ID
+     * @return the compiled resolution information
+     * @see #resolve(String)
+     */
+    private ResolvedObservable resolve(int key) {
+        ResolvedObservable result = resolutionTable.get(key);
+        if (null == result) {
+            String observableID = keys.getKey(key);
+            result = new ResolvedObservable();
+            result.nested = isNestedVariable(observableID);
+            if (result.nested) {
                 try {
-                    if (1 == index) {
-                        // Returns the compound
-                        index = Math.max(segments.size() - 2, 1);
-                        String firstSegment = segments.get(0);
-                        if (firstSegment.equals(FrozenSystemState.PIPELINE_ELEMENT)) {
-                            id = firstSegment + FrozenSystemState.SEPARATOR + segments.get(1)
-                                + FrozenSystemState.SEPARATOR + segments.get(index++);
-                        } else if (firstSegment.equals(FrozenSystemState.ACTUAL)) {
-                            // Map to pipeline element and its SLOT_ACTUAL, value will be adjusted accordingly
-                            id = FrozenSystemState.PIPELINE_ELEMENT + FrozenSystemState.SEPARATOR + segments.get(1)
-                                + FrozenSystemState.SEPARATOR + segments.get(2);
-                            index++;
-                            slotOverride = QmConstants.SLOT_ACTUAL;
-                        } else {
-                            if (firstSegment.equals(FrozenSystemState.ALGORITHM)) {
-                                type = ObservableMappingType.ALGORITHM;
-                            }
-                            id = firstSegment + FrozenSystemState.SEPARATOR + segments.get(index++);
-                        }
-                    } else if ((segments.size() - 1) == index) {
-                        if (null != slotOverride) {
-                            id = slotOverride;
-                        } else {
-                            // Returns the observable
-                            id = segments.get(index++);
-                            String mappedValue = ObservableMappingType.getMapping(type, id);
-                            if (null != mappedValue) {
-                                id = mappedValue;
-                            }  else {
-                                id = null;
-                            }
-                        }
+                    result.path = compilePath(observableID, splitID(key, result));
+                } catch (RuntimeException e) {
+                    fail(result, observableID, e.getMessage());
+                }
+            }
+            result.actualValue = extractActualAlgorithm(observableID);
+            resolutionTable.put(key, result);
+        }
+        return result;
+    }
+    
+    /**
+     * Compiles the segments of an observable ID into the access path to the target variable, i.e., 
+     * variable (... nested variables) ... slot.
+     * 
+     * @param observableID the observable ID (for error messages)
+     * @param segments the segments of <code>observableID</code>, see {@link #splitID(int, ResolvedObservable)}
+     * @return the access path, the slot may be <b>null</b> if the observable is not mapped
+     */
+    private static String[] compilePath(String observableID, List<String> segments) {
+        List<String> path = new ArrayList<String>();
+        try {
+            ObservableMappingType type = null;
+            String slotOverride = null;
+            int size = segments.size();
+            // Returns the compound
+            int index = Math.max(size - 2, 1);
+            String firstSegment = segments.get(0);
+            if (firstSegment.equals(FrozenSystemState.PIPELINE_ELEMENT)) {
+                path.add(firstSegment + FrozenSystemState.SEPARATOR + segments.get(1)
+                    + FrozenSystemState.SEPARATOR + segments.get(index++));
+            } else if (firstSegment.equals(FrozenSystemState.ACTUAL)) {
+                // Map to pipeline element and its SLOT_ACTUAL, value will be adjusted accordingly
+                path.add(FrozenSystemState.PIPELINE_ELEMENT + FrozenSystemState.SEPARATOR + segments.get(1)
+                    + FrozenSystemState.SEPARATOR + segments.get(2));
+                index++;
+                slotOverride = QmConstants.SLOT_ACTUAL;
+            } else {
+                if (firstSegment.equals(FrozenSystemState.ALGORITHM)) {
+                    type = ObservableMappingType.ALGORITHM;
+                }
+                path.add(firstSegment + FrozenSystemState.SEPARATOR + segments.get(index++));
+            }
+            while (index < size) {
+                if ((size - 1) == index) {
+                    if (null != slotOverride) {
+                        path.add(slotOverride);
                     } else {
-                        // Should not be needed (would return an intermediate compound)
-                        id = segments.get(index++);
+                        // Returns the observable, null if not mapped
+                        path.add(ObservableMappingType.getMapping(type, segments.get(index)));
                     }
-                } catch (ArrayIndexOutOfBoundsException exc) {
-                    throw new RuntimeException("Unable to split \"" + observableID + "\" into sufficient segments."
-                        , exc);
+                } else {
+                    // Should not be needed (would return an intermediate compound)
+                    path.add(segments.get(index));
                 }
-                return id;
+                index++;
             }
-
-            @Override
-            public void remove() {
-                throw new UnsupportedOperationException("Removing segments are not supported. Tried this on: "
-                    + observableID);
-            }
-        };
+        } catch (IndexOutOfBoundsException exc) {
+            throw new RuntimeException("Unable to split \"" + observableID + "\" into sufficient segments."
+                , exc);
+        }
+        return path.toArray(new String[path.size()]);
     }
 
     /**
@@ -318,20 +707,31 @@ public class IvmlElementIdentifier extends AbstractVariableIdentifier<IvmlElemen
      * @return An list of the split elements.
      */
     private List<String> splitID(final String id) {
-        List<String> segments = cachedIDSegments.get(id);
+        return splitID(keys.intern(id), null);
+    }
+
+    /**
+     * Splits a given ID into segments for iteration through the element parts.
+     * Will also use a cached to minimize String operations.
+     * @param key The {@link ObservableKeys int-coded} ID to split into individual segments.
+     * @param resolved The resolution information to record problems in, problems are logged if <b>null</b>.
+     * @return An list of the split elements.
+     */
+    private List<String> splitID(final int key, ResolvedObservable resolved) {
+        List<String> segments = cachedIDSegments.get(key);
         if (null == segments) {
             segments = new ArrayList<String>();
-            cachedIDSegments.put(id, segments);
+            cachedIDSegments.put(key, segments);
             
-            String[] arraySegments = id.split(FrozenSystemState.SEPARATOR);
+            String[] arraySegments = keys.getKey(key).split(FrozenSystemState.SEPARATOR);
             
             // Special treatment for elements for which adaptation/monitoring copies are created
             if (FrozenSystemState.ALGORITHM.equals(arraySegments[0])) {
-                fillSegmentList(MappedInstanceType.ALGORITHM, arraySegments, segments);
+                fillSegmentList(MappedInstanceType.ALGORITHM, arraySegments, segments, resolved);
             } else if (FrozenSystemState.DATASOURCE.equals(arraySegments[0])) {
-                fillSegmentList(MappedInstanceType.SOURCE, arraySegments, segments);
+                fillSegmentList(MappedInstanceType.SOURCE, arraySegments, segments, resolved);
             } else if (FrozenSystemState.DATASINK.equals(arraySegments[0])) {
-                fillSegmentList(MappedInstanceType.SINK, arraySegments, segments);
+                fillSegmentList(MappedInstanceType.SINK, arraySegments, segments, resolved);
             }            
             // Default operation and fall back
             if (segments.isEmpty()) {
@@ -345,12 +745,14 @@ public class IvmlElementIdentifier extends AbstractVariableIdentifier<IvmlElemen
     }
 
     /**
-     * Part of {@link #splitID(String)} to fill the list for mapped runtime variable instances.
+     * Part of {@link #splitID(int, ResolvedObservable)} to fill the list for mapped runtime variable instances.
      * @param type The type of mapped variable
      * @param arraySegments The already split ID for an variable
      * @param segments The empty list to fill via side effect
+     * @param resolved The resolution information to record problems in, problems are logged if <b>null</b>.
      */
-    private void fillSegmentList(MappedInstanceType type, String[] arraySegments, List<String> segments) {
+    private void fillSegmentList(MappedInstanceType type, String[] arraySegments, List<String> segments, 
+        ResolvedObservable resolved) {
         PipelineContentsContainer infos = getPipelineInfos(arraySegments[1]);
         if (null != infos) {
             IDecisionVariable mappedVar = infos.getMappedInstance(type, arraySegments[2]);
@@ -360,18 +762,110 @@ public class IvmlElementIdentifier extends AbstractVariableIdentifier<IvmlElemen
                 segments.add(arraySegments[arraySegments.length - 1]);
             } else {
                 if (!infos.hasMapping(type, arraySegments[2])) {
-                    Bundle.getLogger(IvmlElementIdentifier.class).warn("No mapped variable found for: "
-                        + arraySegments[1] + "/" + arraySegments[2] + " with type " + type);
+                    hint(resolved, "No mapped variable found for: " + arraySegments[1] + "/" + arraySegments[2] 
+                        + " with type " + type);
                 }
             }
         } else {
             String pipName = arraySegments[1];
-            if (!PROFILING_PIPELINES.contains(pipName)) {
-                Bundle.getLogger(IvmlElementIdentifier.class).warn("No pipeline information found for: " + pipName);
+            if (!isProfiling(pipName)) {
+                hint(resolved, "No pipeline information found for: " + pipName);
             }
         }
     }
     
+    /**
+     * Records a splitting problem as hint for a later resolution failure or logs it.
+     * 
+     * @param resolved the resolution information to record the problem in, the problem is logged if <b>null</b>
+     * @param problem the problem description
+     */
+    private static void hint(ResolvedObservable resolved, String problem) {
+        if (null == resolved) {
+            Bundle.getLogger(IvmlElementIdentifier.class).warn(problem);
+        } else {
+            resolved.hint = problem;
+        }
+    }
+    
+    /**
+     * Records that <code>observableID</code> cannot be resolved, i.e., it is skipped cheaply in subsequent bindings
+     * until this identifier is re-created due to a model update or the respective pipeline is started (negative 
+     * cache). Logs the failure once.
+     * 
+     * @param resolved the resolution information to record the failure in
+     * @param observableID the observable ID
+     * @param reason the reason for the failure
+     */
+    private static void fail(ResolvedObservable resolved, String observableID, String reason) {
+        resolved.failure = null == reason ? "unknown reason" : reason;
+        RESOLUTION_FAILURES.incrementAndGet();
+        Bundle.getLogger(IvmlElementIdentifier.class).warn("Cannot resolve " + observableID + ": " 
+            + resolved.failure + ". Ignoring it until next model update or pipeline start.");
+    }
+    
+    /**
+     * Invalidates all cached information related to <code>pipeline</code>, in particular the recorded resolution
+     * failures (negative cache), e.g., as the pipeline is being started.
+     * 
+     * @param pipeline the name of the pipeline
+     */
+    void invalidatePipeline(String pipeline) {
+        pipelineInfos.remove(pipeline);
+        removePipelineEntries(resolutionTable, pipeline);
+        removePipelineEntries(cachedIDSegments, pipeline);
+        fanOut.clear(); // hosts may be propagated differently, cheap to re-build
+    }
+    
+    /**
+     * Replaces the int-coded observable keys of this identifier, e.g., as the current ones are 
+     * {@link ObservableKeys#isExhausted() exhausted}. Clears the caches indexed by the previous keys.
+     * 
+     * @param keys the new keys
+     */
+    void setKeys(ObservableKeys keys) {
+        this.keys = keys;
+        resolutionTable.clear();
+        cachedIDSegments.clear();
+    }
+    
+    /**
+     * Removes all entries with observable IDs of <code>pipeline</code> from <code>cache</code>.
+     * 
+     * @param cache the cache to remove the entries from (modified as a side effect)
+     * @param pipeline the name of the pipeline
+     */
+    private void removePipelineEntries(IntLruCache<?> cache, String pipeline) {
+        int[] ids = cache.ids();
+        for (int i = 0; i < ids.length; i++) {
+            if (pipeline.equals(keys.getPipeline(ids[i]))) {
+                cache.remove(ids[i]);
+            }
+        }
+    }
+    
+    /**
+     * Returns the name of the pipeline an observable ID belongs to.
+     * 
+     * @param observableID the observable ID
+     * @return the name of the pipeline, <b>null</b> if <code>observableID</code> does not belong to a pipeline
+     */
+    static String getPipelineName(String observableID) {
+        String result = null;
+        int pos = observableID.indexOf(FrozenSystemState.SEPARATOR);
+        if (pos > 0) {
+            String prefix = observableID.substring(0, pos);
+            if (FrozenSystemState.PIPELINE.equals(prefix) || FrozenSystemState.PIPELINE_ELEMENT.equals(prefix) 
+                || FrozenSystemState.ALGORITHM.equals(prefix) || FrozenSystemState.DATASOURCE.equals(prefix) 
+                || FrozenSystemState.DATASINK.equals(prefix) || FrozenSystemState.ACTUAL.equals(prefix)) {
+                int start = pos + FrozenSystemState.SEPARATOR.length();
+                int end = observableID.indexOf(FrozenSystemState.SEPARATOR, start);
+                result = end < 0 ? observableID.substring(start) : observableID.substring(start, end);
+            }
+        }
+        return result;
+    }
+    
     @Override
     protected String iDecisionVariableToID(IDecisionVariable variable) {
         String id = null;
@@ -411,7 +905,19 @@ public class IvmlElementIdentifier extends AbstractVariableIdentifier<IvmlElemen
     
     @Override
     protected Object mapValue(String id, Object oValue) {
-        Object result = oValue;        
+        String actual = extractActualAlgorithm(id);
+        return null != actual ? actual : oValue;
+    }
+    
+    /**
+     * Extracts the name of the actual algorithm from an {@link FrozenSystemState#ACTUAL} ID.
+     * 
+     * @param id the observable ID
+     * @return the algorithm name, <b>null</b> if <code>id</code> is not an actual ID or does not comply to the 
+     *     ID conventions
+     */
+    private static String extractActualAlgorithm(String id) {
+        String result = null;
         if (id.startsWith(FrozenSystemState.ACTUAL + FrozenSystemState.SEPARATOR)) {
             // if this is a change of an algorithm, extract the value from the path
             int ePos = id.lastIndexOf(FrozenSystemState.SEPARATOR);
@@ -444,9 +950,49 @@ public class IvmlElementIdentifier extends AbstractVariableIdentifier<IvmlElemen
     @Override
     protected Value toIVMLValue(IDecisionVariable trgVariable, Object oValue) 
         throws ValueDoesNotMatchTypeException {
-        Value result = null;
+        return toIVMLValue(trgVariable, selectConversion(trgVariable), oValue);
+    }
+    
+    /**
+     * Returns the conversion for the given target variable. Conversions are cached per target type.
+     * 
+     * @param trgVariable the target variable
+     * @return the conversion
+     */
+    private ValueConversion selectConversion(IDecisionVariable trgVariable) {
+        ValueConversion result;
         IDatatype type = trgVariable.getDeclaration().getType();
         if (TypeQueries.isReference(type) && trgVariable.getDeclaration().getName().equals(QmConstants.SLOT_ACTUAL)) {
+            result = ValueConversion.ACTUAL_REFERENCE;
+        } else {
+            result = conversions.get(type);
+            if (null == result) {
+                result = ValueConversion.select(type);
+                conversions.put(type, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Converts <code>oValue</code> into an IVML value for <code>trgVariable</code>. If <code>trgVariable</code> 
+     * already holds a value equal to <code>oValue</code>, the current value instance is returned, i.e., no value is 
+     * created and {@link #assignValue(IDecisionVariable, Value)} skips the assignment.
+     * 
+     * @param trgVariable the target variable
+     * @param conversion the conversion to apply for <code>trgVariable</code>
+     * @param oValue the value to convert
+     * @return the IVML value, may be <b>null</b> if no conversion is possible
+     * @throws ValueDoesNotMatchTypeException if <code>oValue</code> does not match the type of 
+     *     <code>trgVariable</code>
+     */
+    private Value toIVMLValue(IDecisionVariable trgVariable, ValueConversion conversion, Object oValue) 
+        throws ValueDoesNotMatchTypeException {
+        Value result = null;
+        IDatatype type = trgVariable.getDeclaration().getType();
+        Value current = trgVariable.getValue();
+        switch (conversion) {
+        case ACTUAL_REFERENCE:
             IDecisionVariable available = null;
             if (trgVariable.getParent() instanceof IDecisionVariable) {
                 try {
@@ -458,28 +1004,378 @@ public class IvmlElementIdentifier extends AbstractVariableIdentifier<IvmlElemen
                 }
             }
             if (null != available) {
-                result = ValueFactory.createValue(trgVariable.getDeclaration().getType(), available.getDeclaration());
+                if (null != current && current.getValue() == available.getDeclaration()) {
+                    result = current;
+                } else {
+                    result = ValueFactory.createValue(type, available.getDeclaration());
+                }
             } else {
                 Bundle.getLogger(IvmlElementIdentifier.class).warn("Cannot find active algorithm for " + oValue 
                     + " in the available algorithms of " + trgVariable.getQualifiedName() 
                     + ". Ignoring algorithm change");
             }
-        } else {
-            if (IntegerType.TYPE.isAssignableFrom(type) && oValue instanceof Double) {
-                oValue = ((Double) oValue).intValue();
-            } else if (BooleanType.TYPE.isAssignableFrom(type) && oValue instanceof Double) {
+            break;
+        case INTEGER:
+            if (oValue instanceof Double) {
+                int iValue = ((Double) oValue).intValue();
+                if (current instanceof IntValue && null != current.getValue() 
+                    && ((IntValue) current).getValue().intValue() == iValue) {
+                    result = current;
+                } else {
+                    oValue = iValue;
+                }
+            }
+            break;
+        case REAL:
+            if (oValue instanceof Double && current instanceof RealValue && null != current.getValue() 
+                && ((RealValue) current).getValue().doubleValue() == ((Double) oValue).doubleValue()) {
+                result = current;
+            }
+            break;
+        case BOOLEAN:
+            if (oValue instanceof Double) {
                 result = ((Double) oValue) >= 0.5 ? BooleanValue.TRUE : BooleanValue.FALSE;
             }
-            if (null == result) {
-                result = ValueFactory.createValue(type, oValue);
+            break;
+        default:
+            if (null != current && null != oValue && oValue.equals(current.getValue())) {
+                result = current;
+            }
+            break;
+        }
+        if (null == result && ValueConversion.ACTUAL_REFERENCE != conversion) {
+            result = ValueFactory.createValue(type, oValue);
+        }
+        return result;
+    }
+    
+    /**
+     * Converts the primitive <code>value</code> into an IVML value for <code>trgVariable</code> without boxing if 
+     * <code>trgVariable</code> already holds an equal value. 
+     * 
+     * @param trgVariable the target variable
+     * @param conversion the conversion to apply for <code>trgVariable</code>
+     * @param value the value to convert
+     * @return the IVML value, may be <b>null</b> if no conversion is possible
+     * @throws ValueDoesNotMatchTypeException if <code>value</code> does not match the type of 
+     *     <code>trgVariable</code>
+     * @see #toIVMLValue(IDecisionVariable, ValueConversion, Object)
+     */
+    private Value toIVMLValue(IDecisionVariable trgVariable, ValueConversion conversion, double value) 
+        throws ValueDoesNotMatchTypeException {
+        Value result;
+        Value current = trgVariable.getValue();
+        if (ValueConversion.INTEGER == conversion) {
+            int iValue = (int) value;
+            if (current instanceof IntValue && null != current.getValue() 
+                && ((IntValue) current).getValue().intValue() == iValue) {
+                result = current;
+            } else {
+                result = ValueFactory.createValue(trgVariable.getDeclaration().getType(), iValue);
+            }
+        } else if (ValueConversion.REAL == conversion) {
+            if (current instanceof RealValue && null != current.getValue() 
+                && ((RealValue) current).getValue().doubleValue() == value) {
+                result = current;
+            } else {
+                result = ValueFactory.createValue(trgVariable.getDeclaration().getType(), value);
             }
+        } else {
+            result = toIVMLValue(trgVariable, conversion, Double.valueOf(value));
         }
         return result;
     }
     
+    /**
+     * Binds <code>value</code> directly to the variable denoted by <code>observableID</code> using the compiled 
+     * resolution information, i.e., in steady state without splitting the ID or walking the variable structure.
+     * 
+     * @param observableID the observable ID
+     * @param value the value to bind
+     * @return <code>true</code> if the value was handled, including IDs known to be unresolvable, <code>false</code> 
+     *     if <code>observableID</code> cannot be resolved to a target variable and shall be handled by the generic 
+     *     identification mechanism
+     */
+    boolean bindValue(String observableID, Object value) {
+        return bindValue(observableID, value, null);
+    }
+
+    /**
+     * Binds <code>value</code> directly to the variable denoted by <code>observableID</code> or stages the converted
+     * value for a later {@link #applyStaged(List) application}.
+     * 
+     * @param observableID the observable ID
+     * @param value the value to bind
+     * @param staging the staged values to add the converted value to (modified as a side effect), the value is 
+     *     assigned immediately if <b>null</b>
+     * @return <code>true</code> if the value was handled, including IDs known to be unresolvable, <code>false</code> 
+     *     if <code>observableID</code> cannot be resolved to a target variable and shall be handled by the generic 
+     *     identification mechanism
+     */
+    boolean bindValue(String observableID, Object value, List<StagedValue> staging) {
+        return bindValue(keys.intern(observableID), value, staging);
+    }
+
+    /**
+     * Binds <code>value</code> directly to the variable denoted by the {@link ObservableKeys int-coded} 
+     * observable ID or stages the converted value for a later {@link #applyStaged(List) application}.
+     * 
+     * @param key the int-coded observable ID
+     * @param value the value to bind
+     * @param staging the staged values to add the converted value to (modified as a side effect), the value is 
+     *     assigned immediately if <b>null</b>
+     * @return <code>true</code> if the value was handled, including IDs known to be unresolvable, <code>false</code> 
+     *     if the ID cannot be resolved to a target variable and shall be handled by the generic identification 
+     *     mechanism
+     * @see #bindValue(String, Object, List)
+     */
+    boolean bindValue(int key, Object value, List<StagedValue> staging) {
+        ResolvedObservable resolved = resolve(key);
+        String observableID = keys.getKey(key);
+        IDecisionVariable target = null == resolved.failure ? getTarget(resolved, observableID) : null;
+        if (null != target) {
+            try {
+                assignOrStage(observableID, target, toIVMLValue(target, resolved.conversion, 
+                    null != resolved.actualValue ? resolved.actualValue : value), staging);
+            } catch (ValueDoesNotMatchTypeException e) {
+                Bundle.getLogger(IvmlElementIdentifier.class).warn("Cannot bind " + observableID + ": " 
+                    + e.getMessage());
+            } catch (ConfigurationException e) {
+                Bundle.getLogger(IvmlElementIdentifier.class).warn("Cannot bind " + observableID + ": " 
+                    + e.getMessage());
+            }
+        }
+        if (null != resolved.failure) {
+            unmappedCount++;
+        }
+        return null != target || null != resolved.failure;
+    }
+
+    /**
+     * Binds a primitive numeric value to the variable denoted by the {@link ObservableKeys int-coded} observable ID. 
+     * In contrast to {@link #bindValue(int, Object, List)}, <code>value</code> is not boxed and an IVML value is only 
+     * created if the value of the target variable changes. Intended for IDs where {@link #isNumeric(int)} holds.
+     * 
+     * @param key the int-coded observable ID
+     * @param value the value to bind
+     * @param staging the staged values to add the converted value to (modified as a side effect), the value is 
+     *     assigned immediately if <b>null</b>
+     * @return <code>true</code> if the value was handled, including IDs known to be unresolvable, <code>false</code> 
+     *     if the ID cannot be resolved to a target variable and shall be handled by the generic identification 
+     *     mechanism
+     */
+    boolean bindValue(int key, double value, List<StagedValue> staging) {
+        ResolvedObservable resolved = resolve(key);
+        String observableID = keys.getKey(key);
+        IDecisionVariable target = null == resolved.failure ? getTarget(resolved, observableID) : null;
+        if (null != target) {
+            try {
+                assignOrStage(observableID, target, toIVMLValue(target, resolved.conversion, value), staging);
+            } catch (ValueDoesNotMatchTypeException e) {
+                Bundle.getLogger(IvmlElementIdentifier.class).warn("Cannot bind " + observableID + ": " 
+                    + e.getMessage());
+            } catch (ConfigurationException e) {
+                Bundle.getLogger(IvmlElementIdentifier.class).warn("Cannot bind " + observableID + ": " 
+                    + e.getMessage());
+            }
+        }
+        if (null != resolved.failure) {
+            unmappedCount++;
+        }
+        return null != target || null != resolved.failure;
+    }
+
+    /**
+     * Assigns <code>ivmlValue</code> to <code>target</code> or stages it for a later assignment.
+     * 
+     * @param observableID the observable ID
+     * @param target the target variable
+     * @param ivmlValue the value to assign, ignored if <b>null</b>
+     * @param staging the staged values to add <code>ivmlValue</code> to (modified as a side effect), the value is 
+     *     assigned immediately if <b>null</b>
+     * @throws ConfigurationException if assigning the value fails
+     */
+    private void assignOrStage(String observableID, IDecisionVariable target, Value ivmlValue, 
+        List<StagedValue> staging) throws ConfigurationException {
+        if (null != ivmlValue && null == staging) {
+            assignValue(target, ivmlValue);
+        } else if (null != ivmlValue) {
+            staging.add(new StagedValue(observableID, target, ivmlValue));
+        }
+    }
+    
+    /**
+     * Returns whether the {@link ObservableKeys int-coded} observable ID is bound to a numeric, i.e., Integer or 
+     * Real, target variable.
+     * 
+     * @param key the int-coded observable ID
+     * @return <code>true</code> for a numeric target, <code>false</code> else, in particular if the ID cannot be 
+     *     resolved
+     */
+    boolean isNumeric(int key) {
+        ResolvedObservable resolved = resolve(key);
+        IDecisionVariable target = null == resolved.failure ? getTarget(resolved, keys.getKey(key)) : null;
+        return null != target && (ValueConversion.INTEGER == resolved.conversion 
+            || ValueConversion.REAL == resolved.conversion);
+    }
+    
+    /**
+     * Returns whether the {@link ObservableKeys int-coded} observable ID is not known to be unresolvable. 
+     * 
+     * @param key the int-coded observable ID
+     * @return <code>false</code> if resolving the ID failed, <code>true</code> else
+     */
+    boolean isResolvable(int key) {
+        return null == resolve(key).failure;
+    }
+    
+    /**
+     * Returns the number of values skipped so far as their observable IDs cannot be resolved.
+     * 
+     * @return the number of unmapped values
+     */
+    int getUnmappedCount() {
+        return unmappedCount;
+    }
+    
+    /**
+     * Assigns staged values.
+     * 
+     * @param staging the staged values
+     * @see #bindValue(String, Object, List)
+     */
+    void applyStaged(List<StagedValue> staging) {
+        for (int s = 0, end = staging.size(); s < end; s++) {
+            StagedValue staged = staging.get(s);
+            try {
+                assignValue(staged.target, staged.value);
+            } catch (ConfigurationException e) {
+                Bundle.getLogger(IvmlElementIdentifier.class).warn("Cannot bind " + staged.observableID + ": " 
+                    + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the target variable of a compiled observable ID. Resolves the target when requested for the first 
+     * time.
+     * 
+     * @param resolved the compiled resolution information
+     * @param observableID the observable ID
+     * @return the target variable, <b>null</b> if there is none
+     */
+    private IDecisionVariable getTarget(ResolvedObservable resolved, String observableID) {
+        if (!resolved.resolved) {
+            resolved.resolved = true;
+            IDecisionVariable target;
+            String reason;
+            if (resolved.nested) {
+                target = mapVariable(getTopLevelVariables().get(resolved.path[0]));
+                reason = "No variable found for " + resolved.path[0];
+                for (int p = 1; null != target && p < resolved.path.length; p++) {
+                    String slot = resolved.path[p];
+                    target = null == slot ? null : target.getNestedElement(slot);
+                    reason = null == slot ? "Observable is not mapped" : "No slot " + slot + " in " + resolved.path[0];
+                }
+            } else {
+                target = mapVariable(getTopLevelVariables().get(observableID));
+                reason = "No variable found";
+            }
+            resolved.target = target;
+            if (null != target) {
+                resolved.conversion = selectConversion(target);
+            } else if (isProfiling(getPipelineName(observableID))) {
+                resolved.resolved = false; // pipeline contents may appear after profiling, try again
+            } else if (resolved.nested) { // top-level failures are left to the generic mechanism
+                fail(resolved, observableID, null != resolved.hint ? resolved.hint : reason);
+            }
+        }
+        return resolved.target;
+    }
+    
+    /**
+     * Returns the top-level variables of the configuration indexed by their IDs.
+     * 
+     * @return the indexed top-level variables
+     * @see #iDecisionVariableToID(IDecisionVariable)
+     */
+    private Map<String, IDecisionVariable> getTopLevelVariables() {
+        if (null == topLevelVariables) {
+            topLevelVariables = new HashMap<String, IDecisionVariable>();
+            for (IDecisionVariable variable : config) {
+                String id = iDecisionVariableToID(variable);
+                if (null != id) {
+                    topLevelVariables.put(id, variable);
+                }
+            }
+        }
+        return topLevelVariables;
+    }
+    
     @Override
     protected void assignValue(IDecisionVariable variable, Value value) throws ConfigurationException {
-        super.assignValue(variable, value);
+        // skip if value is unchanged (see toIVMLValue) or change is below threshold, then also do not propagate
+        boolean unchanged = value == variable.getValue() && getAssignmentState() == variable.getState();
+        if (!unchanged && ObservableChangeFilter.isSignificantChange(variable, value)) {
+            super.assignValue(variable, value);
+            if (null != changed) {
+                changed.add(variable);
+            }
+            propagateValue(variable, value);
+        }
+    }
+    
+    /**
+     * Defines the set collecting the variables changed by assignments, including derived slots. 
+     * 
+     * @param changed the set (modified as a side effect), <b>null</b> for no collection
+     */
+    void collectChanges(Set<IDecisionVariable> changed) {
+        this.changed = changed;
+    }
+    
+    /**
+     * Propagates an assigned value to derived slots.
+     * 
+     * @param variable the variable <code>value</code> was assigned to
+     * @param value the assigned value
+     * @throws ConfigurationException in case that the types of the variable declaration 
+     *   and <code>value</code> do not comply
+     */
+    private void propagateValue(IDecisionVariable variable, Value value) throws ConfigurationException {
+        IDecisionVariable[] targets = getFanOut(variable);
+        for (int t = 0; t < targets.length; t++) {
+            targets[t].setValue(value, getAssignmentState());
+            if (null != changed) {
+                changed.add(targets[t]);
+            }
+        }
+    }
+    
+    /**
+     * Returns the derived slots of <code>variable</code>, determines them when requested for the first time.
+     * 
+     * @param variable the variable to return the derived slots for
+     * @return the derived slots, empty if there are none
+     */
+    private IDecisionVariable[] getFanOut(IDecisionVariable variable) {
+        IDecisionVariable[] targets = fanOut.get(variable);
+        if (null == targets) {
+            targets = collectFanOut(variable);
+            fanOut.put(variable, targets);
+        }
+        return targets;
+    }
+    
+    /**
+     * Determines the derived slots (fan-out) to propagate values of <code>variable</code> to. The result is stored in 
+     * {@link #fanOut}, which is implicitly invalidated on model updates as the identifier is re-created.
+     * 
+     * @param variable the variable to determine the derived slots for
+     * @return the derived slots, empty if there are none
+     */
+    private IDecisionVariable[] collectFanOut(IDecisionVariable variable) {
+        List<IDecisionVariable> targets = new ArrayList<IDecisionVariable>();
         if (variable.getParent() instanceof IDecisionVariable) {
             IDecisionVariable parentVariable = (IDecisionVariable) variable.getParent();
             String variableName = variable.getDeclaration().getName();
@@ -493,22 +1389,23 @@ public class IvmlElementIdentifier extends AbstractVariableIdentifier<IvmlElemen
                 if (null != infos) {
                     List<IDecisionVariable> familyElements = infos.getFamilyElements();
                     for (IDecisionVariable familyElement : familyElements) {
-                        setValueForAvailableAlgorithms(value, familyElement, "pipeline_Hosts");
+                        collectAvailableAlgorithmSlots(familyElement, "pipeline_Hosts", targets);
                     }
                 }
             } else if (QmConstants.TYPE_FAMILYELEMENT.equals(typeName)) {                
                 if ("items".equals(variableName)) {
                     // Assign family_Items to all algorithms of family element
-                    setValueForAvailableAlgorithms(value, parentVariable, "family_Items");
+                    collectAvailableAlgorithmSlots(parentVariable, "family_Items", targets);
                 } else if ("predecessorItems".equals(variableName)) {
                     // Assign family_PredecessorItems to all algorithms of family element
-                    setValueForAvailableAlgorithms(value, parentVariable, "family_PredecessorItems");
+                    collectAvailableAlgorithmSlots(parentVariable, "family_PredecessorItems", targets);
                 } else if ("predictedItemsThreshold".equals(variableName)) {
                     // Assign family_PredictedItemsThreshold to all algorithms of family element
-                    setValueForAvailableAlgorithms(value, parentVariable, "family_PredictedItemsThreshold");
+                    collectAvailableAlgorithmSlots(parentVariable, "family_PredictedItemsThreshold", targets);
                 }
             }
         }
+        return targets.isEmpty() ? NO_TARGETS : targets.toArray(new IDecisionVariable[targets.size()]);
     }
     
     @Override
@@ -517,15 +1414,13 @@ public class IvmlElementIdentifier extends AbstractVariableIdentifier<IvmlElemen
     }
 
     /**
-     * Sets the specified value to all available algorithms of the given family element.
-     * @param value The value to set.
+     * Collects the specified slot of all available algorithms of the given family element.
      * @param familyElement A family element of a pipeline.
-     * @param slot The slot to configure with the given value.
-     * @throws ConfigurationException in case that the types of the variable declaration 
-     *   and <code>value</code> do not comply
+     * @param slot The slot to collect.
+     * @param targets The collected slot variables (modified as a side effect).
      */
-    private void setValueForAvailableAlgorithms(Value value, IDecisionVariable familyElement, String slot)
-        throws ConfigurationException {
+    private void collectAvailableAlgorithmSlots(IDecisionVariable familyElement, String slot, 
+        List<IDecisionVariable> targets) {
         
         IDecisionVariable availableAlgos = familyElement.getNestedElement(QmConstants.SLOT_FAMILYELEMENT_AVAILABLE);
         List<IDecisionVariable> algos = null;
@@ -536,12 +1431,12 @@ public class IvmlElementIdentifier extends AbstractVariableIdentifier<IvmlElemen
                 algos = Utils.extractVariables(container, familyElement.getConfiguration());
             }
         }
-        // Set same value for all available algorithms
+        // Same value for all available algorithms
         if (null != algos) {
             for (IDecisionVariable algorithm : algos) {
                 IDecisionVariable algoSlot = algorithm.getNestedElement(slot);
                 if (null != algoSlot) {
-                    algoSlot.setValue(value, getAssignmentState());
+                    targets.add(algoSlot);
                 }
             }
         }
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.qualimaster.easy.extension.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import eu.qualimaster.easy.extension.ObservableMapping;
+import eu.qualimaster.observables.IObservable;
+import net.ssehub.easy.varModel.confModel.IDecisionVariable;
+import net.ssehub.easy.varModel.model.values.Value;
+
+/**
+ * Filters insignificant changes of observable values before they are assigned to the configuration. Thresholds 
+ * are given per observable as absolute or relative epsilon and are compared against the value currently held by
+ * the target variable, i.e., small changes accumulate until they exceed the threshold (hysteresis). Observables
+ * without threshold are not filtered.
+ */
+public class ObservableChangeFilter {
+
+    private static final Map<String, Threshold> THRESHOLDS = new ConcurrentHashMap<String, Threshold>();
+    
+    /**
+     * Represents a threshold.
+     */
+    private static class Threshold {
+        
+        private double epsilon;
+        private boolean relative;
+
+        /**
+         * Creates a threshold.
+         * 
+         * @param epsilon the epsilon
+         * @param relative whether <code>epsilon</code> is relative to the current value or absolute
+         */
+        private Threshold(double epsilon, boolean relative) {
+            this.epsilon = Math.abs(epsilon);
+            this.relative = relative;
+        }
+        
+        /**
+         * Returns whether the change from <code>oldValue</code> to <code>newValue</code> is significant.
+         * 
+         * @param oldValue the old value
+         * @param newValue the new value
+         * @return <code>true</code> if significant, <code>false</code> else
+         */
+        private boolean isSignificant(double oldValue, double newValue) {
+            double limit = relative ? epsilon * Math.abs(oldValue) : epsilon;
+            return Math.abs(newValue - oldValue) > limit;
+        }
+        
+    }
+    
+    /**
+     * Defines an absolute epsilon for an observable, i.e., changes with an absolute difference up to 
+     * <code>epsilon</code> are not assigned.
+     * 
+     * @param observable the observable
+     * @param epsilon the absolute epsilon
+     */
+    public static void setAbsoluteEpsilon(IObservable observable, double epsilon) {
+        setThreshold(observable.name(), new Threshold(epsilon, false));
+    }
+
+    /**
+     * Defines a relative epsilon for an observable, i.e., changes with a difference up to <code>epsilon</code> 
+     * times the current value are not assigned.
+     * 
+     * @param observable the observable
+     * @param epsilon the relative epsilon, e.g., 0.05 for 5%
+     */
+    public static void setRelativeEpsilon(IObservable observable, double epsilon) {
+        setThreshold(observable.name(), new Threshold(epsilon, true));
+    }
+    
+    /**
+     * Removes the threshold for an observable.
+     * 
+     * @param observable the observable
+     */
+    public static void removeEpsilon(IObservable observable) {
+        setThreshold(observable.name(), null);
+    }
+    
+    /**
+     * Removes all thresholds.
+     */
+    public static void clear() {
+        THRESHOLDS.clear();
+    }
+    
+    /**
+     * Registers a threshold for the variable names the observable is mapped to by {@link ObservableMapping}.
+     * 
+     * @param observable the name of the observable
+     * @param threshold the threshold, <b>null</b> for removing the threshold
+     */
+    private static void setThreshold(String observable, Threshold threshold) {
+        registerThreshold(ObservableMapping.mapGeneralObservable(observable), threshold);
+        registerThreshold(ObservableMapping.mapAlgorithmObservable(observable), threshold);
+    }
+    
+    /**
+     * Registers a threshold for a variable name.
+     * 
+     * @param variableName the variable name (ignored if <b>null</b>)
+     * @param threshold the threshold, <b>null</b> for removing the threshold
+     */
+    private static void registerThreshold(String variableName, Threshold threshold) {
+        if (null != variableName) {
+            if (null == threshold) {
+                THRESHOLDS.remove(variableName);
+            } else {
+                THRESHOLDS.put(variableName, threshold);
+            }
+        }
+    }
+
+    /**
+     * Returns whether assigning <code>value</code> to <code>variable</code> is a significant change. 
+     * 
+     * @param variable the variable to assign the value to
+     * @param value the value to assign
+     * @return <code>true</code> if the value shall be assigned, <code>false</code> if the change shall be 
+     *     suppressed
+     */
+    static boolean isSignificantChange(IDecisionVariable variable, Value value) {
+        boolean result = true;
+        if (!THRESHOLDS.isEmpty()) {
+            Threshold threshold = THRESHOLDS.get(variable.getDeclaration().getName());
+            if (null != threshold) {
+                Value oldValue = variable.getValue();
+                Object oldVal = null == oldValue ? null : oldValue.getValue();
+                Object newVal = null == value ? null : value.getValue();
+                if (oldVal instanceof Number && newVal instanceof Number) {
+                    result = threshold.isSignificant(((Number) oldVal).doubleValue(), 
+                        ((Number) newVal).doubleValue());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether changing the value of a variable from <code>currentValue</code> to <code>newValue</code> is 
+     * a significant change.
+     * 
+     * @param variableName the name of the variable (slot) the observable is mapped to
+     * @param currentValue the value currently held by the variable
+     * @param newValue the value to assign
+     * @return <code>true</code> if the value shall be assigned, <code>false</code> if the change shall be 
+     *     suppressed
+     */
+    public static boolean isSignificantChange(String variableName, double currentValue, double newValue) {
+        Threshold threshold = THRESHOLDS.get(variableName);
+        return null == threshold || threshold.isSignificant(currentValue, newValue);
+    }
+
+}
@@ -0,0 +1,344 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.qualimaster.easy.extension.internal;
+
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded history of the numeric values bound per observable key. Disabled by default, i.e., enabled by 
+ * {@link #setCapacity(int) defining} the number of samples per key. The samples of a key are kept in a fixed-size 
+ * ring buffer allocated off-heap, i.e., the garbage collector does not scan the samples. A ring is allocated when 
+ * a key is recorded for the first time and only if the configured memory limit is not exceeded. As each key 
+ * occupies a full ring, the memory limit caps the number of keys rather than the number of samples. Queries 
+ * aggregate the samples in place and only allocate their result. Samples are kept per observable key rather than 
+ * per configuration or target variable, i.e., a key bound to multiple configurations has a single history and the 
+ * history of a key continues across model updates and pipeline restarts. Keys that are known to be unresolvable 
+ * are not recorded. The values of a binding are recorded once after the binding succeeded, also if the same 
+ * snapshot is bound to multiple configurations. Samples must be recorded in the order of their timestamps. 
+ * Thread-safe.
+ */
+public class ObservableHistory {
+
+    private static final int SAMPLE_SIZE = 16; // long timestamp, double value
+    private static int capacity = 0;
+    private static long memoryLimit = 8 * 1024 * 1024;
+    private static final Map<String, Ring> RINGS = new ConcurrentHashMap<String, Ring>();
+    private static long allocated;
+    private static WeakReference<Object> lastSnapshot = new WeakReference<Object>(null);
+    private static final AtomicLong DROPPED = new AtomicLong();
+    
+    /**
+     * The samples of a single key.
+     */
+    private static class Ring {
+        
+        private final ByteBuffer buffer; // final for safe publication via the rings map
+        private final int capacity;
+        private int next;
+        private int count;
+        private long last = Long.MIN_VALUE;
+        
+        /**
+         * Creates a ring.
+         * 
+         * @param capacity the maximum number of samples
+         */
+        private Ring(int capacity) {
+            this.capacity = capacity;
+            this.buffer = ByteBuffer.allocateDirect(capacity * SAMPLE_SIZE);
+        }
+        
+        /**
+         * Records a sample, overwrites the oldest sample if the ring is full. Samples that are not newer than the
+         * last recorded sample are ignored, i.e., the samples remain ordered by time.
+         * 
+         * @param timestamp the timestamp in milliseconds
+         * @param value the value
+         */
+        private synchronized void record(long timestamp, double value) {
+            if (timestamp > last) {
+                int pos = next * SAMPLE_SIZE;
+                buffer.putLong(pos, timestamp);
+                buffer.putDouble(pos + 8, value);
+                next = (next + 1) % capacity;
+                count = Math.min(count + 1, capacity);
+                last = timestamp;
+            }
+        }
+        /**
+         * Aggregates the samples not older than <code>since</code>.
+         * 
+         * @param since the oldest timestamp to consider
+         * @param stats the statistics to aggregate into (modified as a side effect)
+         */
+        private synchronized void aggregate(long since, Statistics stats) {
+            boolean inWindow = true;
+            for (int s = 1; inWindow && s <= count; s++) { // newest first
+                int pos = ((next - s + capacity) % capacity) * SAMPLE_SIZE;
+                long timestamp = buffer.getLong(pos);
+                inWindow = timestamp >= since;
+                if (inWindow) {
+                    stats.add(timestamp, buffer.getDouble(pos + 8));
+                }
+            }
+        }
+        
+    }
+    
+    /**
+     * Aggregated statistics over a time window. The slope is determined by least squares regression.
+     */
+    static class Statistics {
+        
+        private int count;
+        private double min = Double.NaN;
+        private double max = Double.NaN;
+        private double sum;
+        private long base;
+        private double sumT;
+        private double sumTT;
+        private double sumTV;
+        
+        /**
+         * Adds a sample.
+         * 
+         * @param timestamp the timestamp in milliseconds
+         * @param value the value
+         */
+        private void add(long timestamp, double value) {
+            if (0 == count) {
+                base = timestamp; // avoid loss of precision in the regression sums
+                min = value;
+                max = value;
+            } else {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            double t = (timestamp - base) / 1000.0;
+            count++;
+            sum += value;
+            sumT += t;
+            sumTT += t * t;
+            sumTV += t * value;
+        }
+        
+        /**
+         * Returns the number of samples.
+         * 
+         * @return the number of samples
+         */
+        int getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the minimum value.
+         * 
+         * @return the minimum, <code>NaN</code> if there are no samples
+         */
+        double getMin() {
+            return min;
+        }
+
+        /**
+         * Returns the maximum value.
+         * 
+         * @return the maximum, <code>NaN</code> if there are no samples
+         */
+        double getMax() {
+            return max;
+        }
+        
+        /**
+         * Returns the mean value.
+         * 
+         * @return the mean, <code>NaN</code> if there are no samples
+         */
+        double getMean() {
+            return 0 == count ? Double.NaN : sum / count;
+        }
+        
+        /**
+         * Returns the slope, i.e., the change of the value per second.
+         * 
+         * @return the slope, 0 if there are less than two samples or all samples have the same timestamp
+         */
+        double getSlope() {
+            double result = 0;
+            double denominator = count * sumTT - sumT * sumT;
+            if (count > 1 && denominator > 0) {
+                result = (count * sumTV - sumT * sum) / denominator;
+            }
+            return result;
+        }
+        
+    }
+    
+    /**
+     * Defines the maximum number of samples kept per key. Clears the history.
+     * 
+     * @param samples the number of samples, disables the history if not positive
+     */
+    public static synchronized void setCapacity(int samples) {
+        capacity = Math.max(0, samples);
+        clear();
+    }
+
+    /**
+     * Returns the maximum number of samples kept per key.
+     * 
+     * @return the number of samples, 0 if the history is disabled
+     */
+    public static int getCapacity() {
+        return capacity;
+    }
+    
+    /**
+     * Defines the maximum (off-heap) memory used by the history. Keys exceeding the limit are not recorded. Clears 
+     * the history.
+     * 
+     * @param bytes the memory limit in bytes
+     */
+    public static synchronized void setMemoryLimit(long bytes) {
+        memoryLimit = Math.max(0, bytes);
+        clear();
+    }
+
+    /**
+     * Returns the maximum (off-heap) memory used by the history.
+     * 
+     * @return the memory limit in bytes
+     */
+    public static long getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    /**
+     * Returns the (off-heap) memory allocated by the history.
+     * 
+     * @return the allocated memory in bytes
+     */
+    public static synchronized long getAllocatedMemory() {
+        return allocated;
+    }
+    
+    /**
+     * Returns the number of samples that were not recorded as the memory limit was exceeded.
+     * 
+     * @return the number of dropped samples
+     */
+    public static long getDroppedCount() {
+        return DROPPED.get();
+    }
+
+    /**
+     * Clears the history. The off-heap memory is released when the rings are garbage collected.
+     */
+    public static synchronized void clear() {
+        RINGS.clear();
+        allocated = 0;
+        lastSnapshot = new WeakReference<Object>(null);
+    }
+    
+    /**
+     * Returns whether the history is enabled.
+     * 
+     * @return <code>true</code> if enabled, <code>false</code> else
+     */
+    static boolean isEnabled() {
+        return capacity > 0;
+    }
+    
+    /**
+     * Records the numeric values of a successful binding. Values of a snapshot that was recorded before, e.g., 
+     * by the binding to another configuration, are not recorded again.
+     * 
+     * @param snapshot the snapshot the values were bound from, identified by reference
+     * @param keys the observable keys
+     * @param values the values, in the sequence of <code>keys</code>
+     * @param count the number of values to record
+     * @param timestamp the timestamp of the snapshot in milliseconds
+     */
+    static void record(Object snapshot, String[] keys, double[] values, int count, long timestamp) {
+        boolean isNew;
+        synchronized (ObservableHistory.class) {
+            isNew = lastSnapshot.get() != snapshot;
+            if (isNew) {
+                lastSnapshot = new WeakReference<Object>(snapshot);
+            }
+        }
+        for (int v = 0; isNew && v < count; v++) {
+            record(keys[v], timestamp, values[v]);
+        }
+    }
+    
+    /**
+     * Records a bound value.
+     * 
+     * @param key the observable key
+     * @param timestamp the timestamp in milliseconds
+     * @param value the value
+     */
+    private static void record(String key, long timestamp, double value) {
+        Ring ring = RINGS.get(key);
+        if (null == ring) {
+            ring = allocate(key);
+        }
+        if (null == ring) {
+            DROPPED.incrementAndGet();
+        } else {
+            ring.record(timestamp, value);
+        }
+    }
+    
+    /**
+     * Allocates the ring for <code>key</code> if it does not exist and the memory limit is not exceeded.
+     * 
+     * @param key the observable key
+     * @return the ring, <b>null</b> if the memory limit is exceeded or the history is disabled
+     */
+    private static synchronized Ring allocate(String key) {
+        Ring result = RINGS.get(key);
+        long size = (long) capacity * SAMPLE_SIZE;
+        if (null == result && capacity > 0 && allocated + size <= memoryLimit) {
+            result = new Ring(capacity);
+            RINGS.put(key, result);
+            allocated += size;
+        }
+        return result;
+    }
+    
+    /**
+     * Aggregates the samples of <code>key</code> within the given time window.
+     * 
+     * @param key the observable key
+     * @param window the time window in milliseconds ending now
+     * @return the statistics, without samples if there is no history for <code>key</code>
+     */
+    static Statistics aggregate(String key, long window) {
+        Statistics result = new Statistics();
+        Ring ring = null == key ? null : RINGS.get(key);
+        if (null != ring) {
+            ring.aggregate(System.currentTimeMillis() - window, result);
+        }
+        return result;
+    }
+
+}
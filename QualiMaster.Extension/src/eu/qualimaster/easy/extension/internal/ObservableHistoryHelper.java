@@ -0,0 +1,90 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.qualimaster.easy.extension.internal;
+
+import net.ssehub.easy.instantiation.core.model.vilTypes.IVilType;
+import net.ssehub.easy.instantiation.core.model.vilTypes.Instantiator;
+
+/**
+ * Provides rt-VIL access to the {@link ObservableHistory history} of the values bound by 
+ * {@link BindValuesInstantiator}, e.g., for trend-aware adaptation rules. Observables are denoted by their 
+ * <code>FrozenSystemState</code> keys, e.g., <code>PipelineElement:pip:processor:LATENCY</code>. Time windows are 
+ * given in milliseconds and end at the time of the call. The history is kept per key, i.e., it is shared by all 
+ * configurations the key is bound to and continues if a pipeline is restarted under the same name. Values are only 
+ * available if the history is {@link ObservableHistory#setCapacity(int) enabled}, the key can be resolved to a 
+ * variable and the memory limit of the history was not exceeded when the key was recorded first.
+ */
+@Instantiator("historyMin")
+public class ObservableHistoryHelper implements IVilType {
+
+    /**
+     * Returns the minimum value of <code>key</code> within the time window.
+     * 
+     * @param key the observable key
+     * @param window the time window in milliseconds
+     * @return the minimum, <code>NaN</code> if there are no samples in the window
+     */
+    public static double historyMin(String key, int window) {
+        return ObservableHistory.aggregate(key, window).getMin();
+    }
+
+    /**
+     * Returns the maximum value of <code>key</code> within the time window.
+     * 
+     * @param key the observable key
+     * @param window the time window in milliseconds
+     * @return the maximum, <code>NaN</code> if there are no samples in the window
+     */
+    public static double historyMax(String key, int window) {
+        return ObservableHistory.aggregate(key, window).getMax();
+    }
+
+    /**
+     * Returns the mean value of <code>key</code> within the time window.
+     * 
+     * @param key the observable key
+     * @param window the time window in milliseconds
+     * @return the mean, <code>NaN</code> if there are no samples in the window
+     */
+    public static double historyMean(String key, int window) {
+        return ObservableHistory.aggregate(key, window).getMean();
+    }
+
+    /**
+     * Returns the slope of <code>key</code> within the time window, i.e., the change of the value per second 
+     * determined by linear regression. A positive slope indicates a rising value.
+     * 
+     * @param key the observable key
+     * @param window the time window in milliseconds
+     * @return the slope, 0 if there are less than two samples in the window
+     */
+    public static double historySlope(String key, int window) {
+        return ObservableHistory.aggregate(key, window).getSlope();
+    }
+
+    /**
+     * Returns the number of samples of <code>key</code> within the time window, e.g., to check whether the other 
+     * results are meaningful.
+     * 
+     * @param key the observable key
+     * @param window the time window in milliseconds
+     * @return the number of samples
+     */
+    public static int historyCount(String key, int window) {
+        return ObservableHistory.aggregate(key, window).getCount();
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.qualimaster.easy.extension.internal;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns each distinct observable key, e.g., <code>PipelineElement:SwitchPip:processor:USED_MEMORY</code>, a 
+ * compact int id once so that key-indexed structures can be indexed by int rather than by hashing and comparing 
+ * key strings. Ids are dense, i.e., start at 0 and are assigned in the order of first occurrence. The canonical key 
+ * string is held only once. Ids are scoped to an instance, e.g., to a {@link ConfigurationBinder} and its 
+ * identifiers, and are not released individually. Instead, the owner replaces an instance that is 
+ * {@link #isExhausted() exhausted} or outdated, e.g., after a model update, together with all structures indexed 
+ * by its ids. Thread-safe.
+ */
+final class ObservableKeys {
+
+    private Map<String, Integer> ids = new ConcurrentHashMap<String, Integer>();
+    private volatile String[] keys = new String[256];
+    private volatile String[] pipelines = new String[256];
+    private int count;
+    private int limit;
+    
+    /**
+     * Creates an instance.
+     * 
+     * @param limit the number of ids after which this instance is considered to be {@link #isExhausted() 
+     *     exhausted} (at least 1)
+     */
+    ObservableKeys(int limit) {
+        this.limit = Math.max(1, limit);
+    }
+    
+    /**
+     * Returns the id of <code>key</code>. Assigns a new id if <code>key</code> is requested for the first time.
+     * 
+     * @param key the observable key
+     * @return the id
+     */
+    int intern(String key) {
+        Integer id = ids.get(key);
+        if (null == id) {
+            id = register(key);
+        }
+        return id;
+    }
+    
+    /**
+     * Registers <code>key</code> if it is not already registered.
+     * 
+     * @param key the observable key
+     * @return the id of <code>key</code>
+     */
+    private synchronized Integer register(String key) {
+        Integer id = ids.get(key);
+        if (null == id) {
+            String[] k = keys;
+            String[] p = pipelines;
+            if (count == k.length) {
+                k = Arrays.copyOf(k, 2 * count);
+                p = Arrays.copyOf(p, 2 * count);
+            }
+            k[count] = key;
+            p[count] = IvmlElementIdentifier.getPipelineName(key);
+            pipelines = p;
+            keys = k;
+            id = count++;
+            ids.put(key, id); // publishes the arrays to readers obtaining the id
+        }
+        return id;
+    }
+    
+    /**
+     * Returns the key of an id.
+     * 
+     * @param id the id as returned by {@link #intern(String)}
+     * @return the key
+     */
+    String getKey(int id) {
+        return keys[id];
+    }
+
+    /**
+     * Returns the name of the pipeline the key of an id belongs to.
+     * 
+     * @param id the id as returned by {@link #intern(String)}
+     * @return the name of the pipeline, <b>null</b> if the key does not belong to a pipeline
+     * @see IvmlElementIdentifier#getPipelineName(String)
+     */
+    String getPipeline(int id) {
+        return pipelines[id];
+    }
+
+    /**
+     * Returns the number of ids assigned so far.
+     * 
+     * @return the number of ids
+     */
+    int size() {
+        return ids.size();
+    }
+    
+    /**
+     * Returns whether the number of assigned ids reached the limit of this instance, i.e., whether the owner shall 
+     * replace this instance to bound the memory of the id-indexed structures, e.g., if observable keys keep 
+     * changing as pipelines with new names are started.
+     * 
+     * @return <code>true</code> if exhausted, <code>false</code> else
+     */
+    boolean isExhausted() {
+        return ids.size() >= limit;
+    }
+
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.qualimaster.easy.extension.internal;
+
+import eu.qualimaster.monitoring.events.FrozenSystemState;
+
+/**
+ * Optional smoothing of observed values before binding them to the configuration, e.g., to avoid flapping 
+ * adaptation decisions due to instantaneous values. Smoothing is configured per observable family and applies only 
+ * to observables bound to numeric (Integer or Real) variables, i.e., not to Boolean ones such as availability. The 
+ * state is kept per key in primitive form, i.e., updating the state does not allocate memory. Delta binding compares 
+ * the observed rather than the smoothed values, i.e., if the observed value of a key does not change, its state is 
+ * not updated and the last smoothed value remains bound.
+ */
+public class ObservableSmoothing {
+
+    /**
+     * The observable families smoothing can be configured for.
+     */
+    public static enum Family {
+        PIPELINE(FrozenSystemState.PIPELINE),
+        PIPELINE_ELEMENT(FrozenSystemState.PIPELINE_ELEMENT),
+        ALGORITHM(FrozenSystemState.ALGORITHM),
+        MACHINE(FrozenSystemState.MACHINE);
+        
+        private String prefix;
+        
+        /**
+         * Creates a family constant.
+         * 
+         * @param prefix the {@link FrozenSystemState} prefix of the keys of this family
+         */
+        private Family(String prefix) {
+            this.prefix = prefix + FrozenSystemState.SEPARATOR;
+        }
+        
+        /**
+         * Returns the family of the given observable key.
+         * 
+         * @param key the key
+         * @return the family, <b>null</b> if none matches
+         */
+        private static Family getFamily(String key) {
+            Family result = null;
+            Family[] families = values();
+            for (int f = 0; null == result && f < families.length; f++) {
+                if (key.startsWith(families[f].prefix)) {
+                    result = families[f];
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The smoothing strategies.
+     */
+    public static enum Strategy {
+        
+        /**
+         * No smoothing, bind the instantaneous values.
+         */
+        NONE,
+        
+        /**
+         * Exponentially weighted moving average, parameter is the weight of the new value in (0;1].
+         */
+        EWMA,
+        
+        /**
+         * Mean over a sliding window, parameter is the window size.
+         */
+        SLIDING_MEAN;
+    }
+    
+    /**
+     * Stores the smoothing setting for a family.
+     */
+    private static class Setting {
+        
+        private Strategy strategy;
+        private double parameter;
+
+        /**
+         * Creates a setting.
+         * 
+         * @param strategy the strategy
+         * @param parameter the strategy parameter
+         */
+        private Setting(Strategy strategy, double parameter) {
+            this.strategy = strategy;
+            this.parameter = parameter;
+        }
+        
+    }
+    
+    private static final CacheStatistics CACHE_STATISTICS = new CacheStatistics();
+    private static volatile Setting[] settings = new Setting[Family.values().length];
+    private static volatile int version = 0;
+    private static volatile boolean enabled = false;
+
+    /**
+     * Defines the smoothing for an observable family. Existing smoothing states are discarded.
+     * 
+     * @param family the family
+     * @param strategy the strategy
+     * @param parameter the strategy parameter, for {@link Strategy#EWMA} the weight of the new value in (0;1],
+     *     for {@link Strategy#SLIDING_MEAN} the window size (at least 1)
+     * @throws IllegalArgumentException if <code>parameter</code> does not fit to <code>strategy</code>
+     */
+    public static synchronized void setSmoothing(Family family, Strategy strategy, double parameter) {
+        if (Strategy.EWMA == strategy && (parameter <= 0 || parameter > 1)) {
+            throw new IllegalArgumentException("EWMA weight must be in (0;1]");
+        }
+        if (Strategy.SLIDING_MEAN == strategy && parameter < 1) {
+            throw new IllegalArgumentException("Window size must be at least 1");
+        }
+        Setting[] tmp = settings.clone();
+        tmp[family.ordinal()] = null == strategy || Strategy.NONE == strategy ? null 
+            : new Setting(strategy, parameter);
+        boolean tmpEnabled = false;
+        for (int s = 0; s < tmp.length; s++) {
+            tmpEnabled |= null != tmp[s];
+        }
+        settings = tmp;
+        enabled = tmpEnabled;
+        version++;
+    }
+    
+    /**
+     * Disables smoothing for all families.
+     */
+    public static synchronized void clear() {
+        settings = new Setting[Family.values().length];
+        enabled = false;
+        version++;
+    }
+    
+    /**
+     * Returns whether smoothing is enabled for at least one family.
+     * 
+     * @return <code>true</code> for enabled, <code>false</code> else
+     */
+    static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The smoothing state of a single key.
+     */
+    private static class State {
+        
+        private double[] window;
+        private int pos;
+        private int count;
+        private double sum;
+        private double weight;
+        private double average;
+        private boolean initialized;
+        
+        /**
+         * Creates a state.
+         * 
+         * @param setting the smoothing setting
+         */
+        private State(Setting setting) {
+            if (Strategy.SLIDING_MEAN == setting.strategy) {
+                window = new double[(int) setting.parameter];
+            } else {
+                weight = setting.parameter;
+            }
+        }
+        
+        /**
+         * Updates the state.
+         * 
+         * @param value the new value
+         * @return the smoothed value
+         */
+        private double update(double value) {
+            if (null != window) {
+                if (count < window.length) {
+                    count++;
+                } else {
+                    sum -= window[pos];
+                }
+                window[pos] = value;
+                sum += value;
+                pos = (pos + 1) % window.length;
+                average = sum / count;
+            } else if (initialized) {
+                average = weight * value + (1 - weight) * average;
+            } else {
+                average = value;
+                initialized = true;
+            }
+            return average;
+        }
+        
+    }
+    
+    /**
+     * Smoothing states of the keys bound to a single configuration. States are kept per {@link ObservableKeys 
+     * int-coded} key in a bounded cache, i.e., the states of the least recently observed keys are evicted and 
+     * smoothing restarts for them. Not thread-safe.
+     */
+    static class Smoother {
+        
+        private static final State NO_SMOOTHING = new State(new Setting(Strategy.EWMA, 1));
+        
+        private IntLruCache<State> states = new IntLruCache<State>(IvmlElementIdentifier.getCacheCapacity(), 
+            CACHE_STATISTICS);
+        private int stateVersion = version;
+        
+        /**
+         * Returns whether the value of <code>key</code> shall be smoothed, i.e., whether smoothing is configured 
+         * for the family of <code>key</code> and <code>key</code> is bound to a numeric variable.
+         * 
+         * @param id the {@link ObservableKeys int-coded} <code>key</code>
+         * @param key the observable key
+         * @param identifier the identifier resolving <code>id</code> to its target variable
+         * @return <code>true</code> if the value shall be smoothed, <code>false</code> else
+         * @see #smooth(int, double)
+         */
+        boolean isSmoothed(int id, String key, IvmlElementIdentifier identifier) {
+            if (stateVersion != version) {
+                states.clear();
+                stateVersion = version;
+            }
+            State state = states.get(id);
+            if (null == state) {
+                Family family = Family.getFamily(key);
+                Setting setting = null == family ? null : settings[family.ordinal()];
+                state = null != setting && identifier.isNumeric(id) ? new State(setting) : NO_SMOOTHING;
+                states.put(id, state);
+            }
+            return NO_SMOOTHING != state;
+        }
+        
+        /**
+         * Smoothes the given value. Requires that {@link #isSmoothed(int, String, IvmlElementIdentifier)} was 
+         * called for <code>id</code> before.
+         * 
+         * @param id the {@link ObservableKeys int-coded} observable key
+         * @param value the value
+         * @return the smoothed value, <code>value</code> if no smoothing applies
+         */
+        double smooth(int id, double value) {
+            double result = value;
+            State state = states.get(id);
+            if (null != state && NO_SMOOTHING != state) {
+                result = state.update(value);
+            }
+            return result;
+        }
+        
+        /**
+         * Discards all smoothing states, e.g., as the {@link ObservableKeys int-coded} keys are being recycled.
+         */
+        void clear() {
+            states.clear();
+        }
+        
+    }
+
+    /**
+     * Returns the statistics of the smoothing state caches of all binders.
+     * 
+     * @return the statistics
+     */
+    public static CacheStatistics getCacheStatistics() {
+        return CACHE_STATISTICS;
+    }
+
+    /**
+     * Smoothes a series of values as configured for the family of <code>key</code>, e.g., for testing or to 
+     * inspect the effect of a setting. The key is assumed to be bound to a numeric variable.
+     * 
+     * @param key the observable key
+     * @param values the values in observation order
+     * @return the smoothed values
+     */
+    public static double[] smooth(String key, double[] values) {
+        double[] result = values.clone();
+        Family family = Family.getFamily(key);
+        Setting setting = null == family ? null : settings[family.ordinal()];
+        if (null != setting) {
+            State state = new State(setting);
+            for (int v = 0; v < result.length; v++) {
+                result[v] = state.update(values[v]);
+            }
+        }
+        return result;
+    }
+    
+}
@@ -18,10 +18,10 @@ package eu.qualimaster.easy.extension.internal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import eu.qualimaster.adaptation.AdaptationManager;
 import eu.qualimaster.coordination.INameMapping;
@@ -53,7 +53,7 @@ public class PipelineContentsContainer {
         SOURCE, ALGORITHM, SINK;
     }
     
-    private static Set<IDecisionVariable> allMappedVariables = new HashSet<>();
+    private static Set<IDecisionVariable> allMappedVariables = ConcurrentHashMap.newKeySet();
     
     private String pipelineName;
     
@@ -345,6 +345,28 @@ public class PipelineContentsContainer {
         return result;
     }
 
+    /**
+     * Returns the mapped instances for the given kind of pipeline element.
+     * @param type Specifies for which kind of pipeline element the mapped elements shall be returned.
+     * @return The user defined names and the mapped instances, an instance may be <b>null</b> if there is a mapping
+     *     without instance (unmodifiable).
+     */
+    Map<String, IDecisionVariable> getMappedInstances(MappedInstanceType type) {
+        Map<String, IDecisionVariable> result;
+        switch (type) {
+        case SOURCE:
+            result = sourceMapping;
+            break;
+        case SINK:
+            result = sinkMapping;
+            break;
+        default:
+            result = algorithmMapping;
+            break;
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
     /**
      * Returns whether there is a mapping (not necessarily a mapped instance) for the given (configured) item.
      * @param type Specifies for which kind of pipeline element the mapped element shall be returned.
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2016 University of Hildesheim, Software Systems Engineering
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.qualimaster.easy.extension.internal;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import net.ssehub.easy.varModel.confModel.Configuration;
+
+/**
+ * Stores the last reasoning result per configuration together with the binding digest it was determined for, 
+ * see {@link BindValuesInstantiator}, so that callers can skip a reasoner run if no binding changed a value 
+ * meanwhile, e.g., in quiet periods. Results are only memorized for configurations values were bound to. 
+ * Configurations and results are referenced strongly until they are evicted explicitly, i.e., when the binding 
+ * information of their configuration is {@link BindValuesInstantiator#release(Configuration) released} or by 
+ * {@link #clear()}. Thus, results may refer to their configuration. Thread-safe.
+ */
+public class ReasoningMemo {
+
+    private static final Map<Configuration, Entry> MEMO 
+        = Collections.synchronizedMap(new HashMap<Configuration, Entry>());
+    
+    /**
+     * A memorized result.
+     */
+    private static class Entry {
+        
+        private long digest;
+        private Object result;
+        
+        /**
+         * Creates an entry.
+         * 
+         * @param digest the binding digest
+         * @param result the reasoning result
+         */
+        private Entry(long digest, Object result) {
+            this.digest = digest;
+            this.result = result;
+        }
+        
+    }
+
+    /**
+     * Prevents external creation.
+     */
+    private ReasoningMemo() {
+    }
+    
+    /**
+     * Returns the memorized reasoning result for <code>config</code> if it was stored for <code>digest</code>.
+     * 
+     * @param <T> the type of the result
+     * @param config the configuration
+     * @param digest the current binding digest of <code>config</code>
+     * @return the result, <b>null</b> if there is none, the digest differs or is 
+     *     {@link BindValuesInstantiator#NO_DIGEST unknown}, i.e., reasoning is required
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T get(Configuration config, long digest) {
+        Entry entry = BindValuesInstantiator.NO_DIGEST == digest ? null : MEMO.get(config);
+        return null != entry && entry.digest == digest ? (T) entry.result : null;
+    }
+
+    /**
+     * Stores the reasoning result for <code>config</code> and <code>digest</code>.
+     * 
+     * @param config the configuration
+     * @param digest the binding digest of <code>config</code> the result was determined for, nothing is memorized 
+     *     for {@link BindValuesInstantiator#NO_DIGEST}
+     * @param result the result, <b>null</b> removes the memorized result
+     */
+    public static void put(Configuration config, long digest, Object result) {
+        if (null == result || BindValuesInstantiator.NO_DIGEST == digest) {
+            MEMO.remove(config);
+        } else {
+            MEMO.put(config, new Entry(digest, result));
+        }
+    }
+
+    /**
+     * Returns the memorized reasoning result for <code>config</code> if no binding changed a value since it was 
+     * stored, else runs <code>reasoner</code> and memorizes its result. The result is only memorized if the 
+     * digest did not change during reasoning, i.e., a binding during reasoning causes reasoning again next time.
+     * 
+     * @param <T> the type of the result
+     * @param config the configuration
+     * @param reasoner performs the reasoning on <code>config</code>
+     * @return the (memorized) result
+     * @throws Exception if <code>reasoner</code> fails
+     */
+    public static <T> T reason(Configuration config, Callable<T> reasoner) throws Exception {
+        long digest = BindValuesInstantiator.getBindingDigest(config);
+        T result = get(config, digest);
+        if (null == result) {
+            result = reasoner.call();
+            if (BindValuesInstantiator.getBindingDigest(config) == digest) { // else result may mix two states
+                put(config, digest, result);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Removes the memorized result for <code>config</code>.
+     * 
+     * @param config the configuration
+     */
+    static void remove(Configuration config) {
+        MEMO.remove(config);
+    }
+    
+    /**
+     * Removes all memorized results.
+     */
+    public static void clear() {
+        MEMO.clear();
+    }
+
+}
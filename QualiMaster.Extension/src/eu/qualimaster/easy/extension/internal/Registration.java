@@ -503,8 +503,10 @@ public class Registration implements IRegistration {
         registerInstantiator(WeightingSelector.class, instantiators);
         
         registerInstantiator(BindValuesInstantiator.class, instantiators);
+        registerInstantiator(ObservableHistoryHelper.class, instantiators);
         
         ReflectionResolver.setTypeRegistry(regSave);
+        BindingMetrics.register(); // unregistered in deactivate
 
         if (debug) {
             System.out.println("    Instantiators:");
@@ -567,6 +569,8 @@ public class Registration implements IRegistration {
      */
     protected void deactivate(ComponentContext context) {
         // this is not the official way of using DS but the official way is instable
+        BindingMetrics.unregister();
+        BindingJournal.close();
     }
     
     /**